@@ -0,0 +1,16 @@
+package com.routp.container.config;
+
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * The operations of {@link ReadBenchmark} run by as many threads as there are cores, all reading the same
+ * {@link com.routp.container.config.DynamicConfig}. The time per operation staying close to the single-threaded one
+ * shows that readers do not contend: <br>
+ * java -jar benchmarks/target/benchmarks.jar ConcurrentReadBenchmark -prof gc
+ *
+ * @author prarout
+ * @since 1.0.0
+ */
+@Threads(Threads.MAX)
+public class ConcurrentReadBenchmark extends ReadBenchmark {
+}
@@ -0,0 +1,142 @@
+package com.routp.container.config;
+
+import java.io.OutputStream;
+import java.lang.invoke.MethodHandle;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the reads of a boolean flag checked once per message in a tight loop: {@code getBooleanValue},
+ * {@code getBoolean}, a {@link ConfigKey} handle and a {@link ConstantFlag}, read through the flag object and through
+ * its handle kept in a static final field which the JIT folds as a constant. The flags are created before
+ * {@link DynamicConfig} is initialized and are updated by the initialization: <br>
+ * java -jar benchmarks/target/benchmarks.jar ConstantFlagBenchmark -prof gc
+ *
+ * @author prarout
+ * @since 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConstantFlagBenchmark {
+
+    private static final int MESSAGES = 1024;
+    private static final ConstantFlag ENABLED_FLAG = DynamicConfig.constantFlag("bench.enabled");
+    private static final MethodHandle ENABLED = ENABLED_FLAG.handle();
+    private static final ConfigKey<Boolean> ENABLED_KEY = DynamicConfig.key("bench.enabled", Boolean.class, false);
+
+    private final int[] messages = new int[MESSAGES];
+    private Path configFile;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        configFile = Files.createTempFile("constant-flag-benchmark", ".properties");
+        final Properties properties = new Properties();
+        for (int i = 0; i < 1000; i++) {
+            properties.put("bench.key." + i, "value-" + i);
+        }
+        properties.put("bench.enabled", "true");
+        try (OutputStream outputStream = Files.newOutputStream(configFile)) {
+            properties.store(outputStream, "Constant flag benchmark");
+        }
+        DynamicConfig.builder().useCustomExecutor().runAsDaemon().sources(configFile.toString()).build();
+        for (int i = 0; i < MESSAGES; i++) {
+            messages[i] = i;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        DynamicConfig.terminate();
+        Files.deleteIfExists(configFile);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MESSAGES)
+    public long getBooleanValue() {
+        long sum = 0;
+        for (int message : messages) {
+            if (DynamicConfig.getBooleanValue("bench.enabled")) {
+                sum += message;
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MESSAGES)
+    public long getBoolean() {
+        long sum = 0;
+        for (int message : messages) {
+            if (DynamicConfig.getBoolean("bench.enabled", false)) {
+                sum += message;
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MESSAGES)
+    public long configKey() {
+        long sum = 0;
+        for (int message : messages) {
+            if (ENABLED_KEY.get()) {
+                sum += message;
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MESSAGES)
+    public long constantFlagGet() {
+        long sum = 0;
+        for (int message : messages) {
+            if (ENABLED_FLAG.get()) {
+                sum += message;
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MESSAGES)
+    public long constantFlagHandle() throws Throwable {
+        long sum = 0;
+        for (int message : messages) {
+            if ((boolean) ENABLED.invokeExact()) {
+                sum += message;
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MESSAGES)
+    public long baseline() {
+        long sum = 0;
+        for (int message : messages) {
+            sum += message;
+        }
+        return sum;
+    }
+}
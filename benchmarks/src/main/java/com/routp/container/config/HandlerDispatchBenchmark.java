@@ -0,0 +1,116 @@
+package com.routp.container.config;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.routp.container.config.handler.ConfigChangeHandler;
+
+/**
+ * Dispatch of a {@link ConfigChange} to the change handlers: matching the changed keys against the subscriptions,
+ * enqueueing the change and invoking the handlers. Handlers run on the calling thread so that an operation covers the
+ * whole dispatch, half of the handlers are subscribed to a key of the change and the other half to keys which did not
+ * change, unless {@code allKeys} subscribes all of them to every change. The dispatcher is created through
+ * {@link DynamicConfig.TestHook#handlerDispatch}: <br>
+ * java -jar benchmarks/target/benchmarks.jar HandlerDispatchBenchmark -prof gc
+ *
+ * @author prarout
+ * @since 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HandlerDispatchBenchmark {
+
+    @Param({"1", "16", "256"})
+    private int handlers;
+
+    @Param({"false", "true"})
+    private boolean allKeys;
+
+    private Consumer<ConfigChange> dispatcher;
+    private ConfigChange change;
+
+    @Setup(Level.Trial)
+    public void setUp(Blackhole blackhole) {
+        final Map<ConfigChangeHandler, String[]> subscriptions = new LinkedHashMap<>();
+        for (int i = 0; i < handlers; i++) {
+            subscriptions.put(blackhole::consume, allKeys ? new String[0]
+                    : new String[]{i % 2 == 0 ? "bench.changed.*" : "bench.unchanged" + i + ".*"});
+        }
+        dispatcher = DynamicConfig.TestHook.handlerDispatch(subscriptions, new CallerRunsExecutor());
+
+        final Map<String, String> previous = new HashMap<>();
+        final Map<String, String> current = new HashMap<>();
+        for (int i = 0; i < 100; i++) {
+            previous.put("bench.changed.key" + i, "value-" + i);
+            current.put("bench.changed.key" + i, i < 10 ? "changed-" + i : "value-" + i);
+            previous.put("bench.unchanged" + i + ".key", "value-" + i);
+            current.put("bench.unchanged" + i + ".key", "value-" + i);
+        }
+        change = DynamicConfig.TestHook.change(previous, current);
+    }
+
+    @Benchmark
+    public void dispatch() {
+        dispatcher.accept(change);
+    }
+
+    /**
+     * Runs every task on the calling thread.
+     */
+    private static final class CallerRunsExecutor extends AbstractExecutorService {
+
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+
+        @Override
+        public void shutdown() {
+            // Nothing to shut down
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return false;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return false;
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) {
+            return true;
+        }
+    }
+}
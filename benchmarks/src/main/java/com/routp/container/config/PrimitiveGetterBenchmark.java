@@ -0,0 +1,112 @@
+package com.routp.container.config;
+
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the primitive getters of {@link DynamicConfig} with the boxed ones. Run with the GC profiler to see the
+ * allocation per operation, the primitive getters are expected to report 0 B/op: <br>
+ * java -jar benchmarks/target/benchmarks.jar PrimitiveGetterBenchmark -prof gc
+ *
+ * @author prarout
+ * @since 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PrimitiveGetterBenchmark {
+
+    private Path configFile;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        configFile = Files.createTempFile("primitive-getter-benchmark", ".properties");
+        final Properties properties = new Properties();
+        for (int i = 0; i < 1000; i++) {
+            properties.put("bench.key." + i, "value-" + i);
+        }
+        properties.put("bench.timeout", "1500");
+        properties.put("bench.uid", "2147483649");
+        properties.put("bench.ratio", "85.5");
+        properties.put("bench.enabled", "true");
+        try (OutputStream outputStream = Files.newOutputStream(configFile)) {
+            properties.store(outputStream, "Primitive getter benchmark");
+        }
+        DynamicConfig.builder().useCustomExecutor().runAsDaemon().sources(configFile.toString()).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        DynamicConfig.terminate();
+        Files.deleteIfExists(configFile);
+    }
+
+    @Benchmark
+    public int getInt() {
+        return DynamicConfig.getInt("bench.timeout", 30);
+    }
+
+    @Benchmark
+    public Integer getIntValue() {
+        return DynamicConfig.getIntValue("bench.timeout");
+    }
+
+    @Benchmark
+    public Integer getConfigValueOrDefaultInt() {
+        return DynamicConfig.getConfigValueOrDefault("bench.timeout", 30, Integer.class);
+    }
+
+    @Benchmark
+    public long getLong() {
+        return DynamicConfig.getLong("bench.uid", 0L);
+    }
+
+    @Benchmark
+    public Long getLongValue() {
+        return DynamicConfig.getLongValue("bench.uid");
+    }
+
+    @Benchmark
+    public double getDouble() {
+        return DynamicConfig.getDouble("bench.ratio", 0.0);
+    }
+
+    @Benchmark
+    public Double getDoubleValue() {
+        return DynamicConfig.getDoubleValue("bench.ratio");
+    }
+
+    @Benchmark
+    public boolean getBoolean() {
+        return DynamicConfig.getBoolean("bench.enabled", false);
+    }
+
+    @Benchmark
+    public Boolean getBooleanValue() {
+        return DynamicConfig.getBooleanValue("bench.enabled");
+    }
+
+    @Benchmark
+    public int getIntMissing() {
+        return DynamicConfig.getInt("bench.missing", 30);
+    }
+}
@@ -0,0 +1,146 @@
+package com.routp.container.config;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Measures the end-to-end propagation of a source change: a value is written to one of the source files the way the
+ * kubelet updates a ConfigMap, by an atomic move of a new file over the old one, and the harness records the time
+ * until the value is visible to {@link DynamicConfig#getValue(String)} and until a change handler subscribed to the
+ * key completes. It runs the {@link Strategy#WATCH} strategy and the {@link Strategy#POLL} strategy at every
+ * {@link PollFrequency}, each with 1, 10 and 100 sources, and prints the percentiles next to the runtime histograms of
+ * {@link DynamicConfig#getPublishLatency()} and {@link DynamicConfig#getHandlerCompletionLatency()}. Polling takes up
+ * to a poll period per change, the default run takes about half an hour: <br>
+ * java -cp benchmarks/target/benchmarks.jar com.routp.container.benchmarks.PropagationLatencyHarness [changes]
+ * [source counts...]
+ *
+ * @author prarout
+ * @since 1.0.0
+ */
+public final class PropagationLatencyHarness {
+
+    private static final long SPIN_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    private PropagationLatencyHarness() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        final int changes = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        final int[] sourceCounts = args.length > 1
+                ? Arrays.stream(args, 1, args.length).mapToInt(Integer::parseInt).toArray() : new int[]{1, 10, 100};
+        System.out.printf("%-6s %-7s %7s %12s %12s %12s %12s %12s %12s %14s %14s%n", "mode", "period", "sources",
+                "visible p50", "visible p99", "visible max", "handler p50", "handler p99", "handler max",
+                "publish p99 *", "handler p99 *");
+        for (Strategy strategy : Strategy.values()) {
+            final PollFrequency[] frequencies = Strategy.WATCH == strategy ? new PollFrequency[]{PollFrequency.MEDIUM}
+                    : PollFrequency.values();
+            for (PollFrequency frequency : frequencies) {
+                for (int sources : sourceCounts) {
+                    run(strategy, frequency, sources, changes);
+                }
+            }
+        }
+        System.out.println("Durations in ms, * runtime histograms of DynamicConfig measured from the file modification");
+    }
+
+    private static void run(Strategy strategy, PollFrequency frequency, int sourceCount, int changes)
+            throws Exception {
+        final Path directory = Files.createTempDirectory("propagation-latency");
+        final List<Path> sources = new ArrayList<>();
+        for (int i = 0; i < sourceCount; i++) {
+            final Path source = directory.resolve("source-" + i + ".properties");
+            write(source, key(i), "0");
+            sources.add(source);
+        }
+        final AtomicReference<Expected> expected = new AtomicReference<>();
+        DynamicConfig.builder().useCustomExecutor().runAsDaemon()
+                .sources(sources.stream().map(Path::toString).toArray(String[]::new))
+                .strategy(strategy).frequency(frequency)
+                .handler((ConfigChange change) -> {
+                    final Expected current = expected.get();
+                    if (current != null && current.value.equals(change.getNewValue(current.key))) {
+                        current.handled.complete(System.nanoTime());
+                    }
+                }, "latency.*")
+                .build();
+        final long timeoutMillis = TimeUnit.SECONDS.toMillis(frequency.getDuration() * 2L + 10);
+        final long[] visible = new long[changes];
+        final long[] handled = new long[changes];
+        try {
+            for (int change = 0; change < changes; change++) {
+                final int source = change % sourceCount;
+                final Expected current = new Expected(key(source), String.valueOf(change + 1));
+                expected.set(current);
+                final long start = System.nanoTime();
+                write(sources.get(source), current.key, current.value);
+                while (!current.value.equals(DynamicConfig.getValue(current.key))) {
+                    if (System.nanoTime() - start > TimeUnit.MILLISECONDS.toNanos(timeoutMillis)) {
+                        throw new IllegalStateException("Change of " + current.key + " not visible after " +
+                                timeoutMillis + " ms");
+                    }
+                    LockSupport.parkNanos(SPIN_NANOS);
+                }
+                visible[change] = System.nanoTime() - start;
+                handled[change] = current.handled.get(timeoutMillis, TimeUnit.MILLISECONDS) - start;
+            }
+            final LatencyHistogram publishLatency = DynamicConfig.getPublishLatency();
+            final LatencyHistogram handlerLatency = DynamicConfig.getHandlerCompletionLatency();
+            System.out.printf("%-6s %-7s %7d %12.1f %12.1f %12.1f %12.1f %12.1f %12.1f %14d %14d%n", strategy,
+                    Strategy.WATCH == strategy ? "-" : frequency.getDuration() + "s", sourceCount,
+                    percentile(visible, 50), percentile(visible, 99), percentile(visible, 100),
+                    percentile(handled, 50), percentile(handled, 99), percentile(handled, 100),
+                    publishLatency.getPercentile(99, TimeUnit.MILLISECONDS),
+                    handlerLatency.getPercentile(99, TimeUnit.MILLISECONDS));
+        } finally {
+            DynamicConfig.terminate();
+            for (Path source : sources) {
+                Files.deleteIfExists(source);
+            }
+            Files.deleteIfExists(directory);
+        }
+    }
+
+    private static String key(int source) {
+        return "latency.source" + source;
+    }
+
+    /**
+     * Replaces the file by an atomic move of a new file, no reader sees a partially written file.
+     */
+    private static void write(Path source, String key, String value) throws IOException {
+        final Path temporary = source.resolveSibling("." + source.getFileName() + ".tmp");
+        Files.write(temporary, (key + "=" + value + "\n").getBytes(StandardCharsets.UTF_8));
+        Files.move(temporary, source, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static double percentile(long[] nanos, double percentile) {
+        final long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        final int index = Math.max(0, (int) Math.ceil(percentile / 100 * sorted.length) - 1);
+        return sorted[index] / 1_000_000.0;
+    }
+
+    /**
+     * Value the harness waits for and the completion time of the handler which saw it.
+     */
+    private static final class Expected {
+        private final String key;
+        private final String value;
+        private final CompletableFuture<Long> handled = new CompletableFuture<>();
+
+        private Expected(String key, String value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.routp.container.config;
+
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.helidon.config.Config;
+import io.helidon.config.ConfigSources;
+
+/**
+ * Compares reading a properties file with the properties file source of {@link DynamicConfig}, reached through
+ * {@link DynamicConfig.TestHook#propertiesReader}, and with Helidon's {@link ConfigSources#file(String)} flattened into
+ * a map, the way a file source was read before. Run with the GC profiler to compare the allocation per read: <br>
+ * java -jar benchmarks/target/benchmarks.jar PropertiesParserBenchmark -prof gc
+ *
+ * @author prarout
+ * @since 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PropertiesParserBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    private int keys;
+
+    private Path configFile;
+    private Supplier<Map<String, String>> propertiesReader;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        configFile = Files.createTempFile("properties-parser-benchmark", ".properties");
+        final Properties properties = new Properties();
+        for (int i = 0; i < keys; i++) {
+            properties.put("bench.service" + i % 100 + ".key." + i, "value-" + i);
+        }
+        try (OutputStream outputStream = Files.newOutputStream(configFile)) {
+            properties.store(outputStream, "Properties parser benchmark");
+        }
+        propertiesReader = DynamicConfig.TestHook.propertiesReader(configFile);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        Files.deleteIfExists(configFile);
+    }
+
+    @Benchmark
+    public Map<String, String> propertiesSource() {
+        return propertiesReader.get();
+    }
+
+    @Benchmark
+    public Map<String, String> helidonFileSource() {
+        return Config.builder().sources(ConfigSources.file(configFile.toString())).disableCaching()
+                .disableEnvironmentVariablesSource().disableSystemPropertiesSource().build().asMap().get();
+    }
+}
@@ -0,0 +1,116 @@
+package com.routp.container.config;
+
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Read path of {@link DynamicConfig} on a single thread: lookups of present and missing keys, the typed getters and
+ * the copy of the whole config. {@link ConcurrentReadBenchmark} runs the same operations on all the cores. Run with
+ * the GC profiler to see the allocation per operation: <br>
+ * java -jar benchmarks/target/benchmarks.jar ReadBenchmark -prof gc
+ *
+ * @author prarout
+ * @since 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(1)
+@Fork(1)
+public class ReadBenchmark {
+
+    private static final String HIT = "bench.service.key.500";
+    private static final String MISS = "bench.service.missing";
+    private static final String TIMEOUT = "bench.timeout";
+
+    @Param({"1000"})
+    private int keys;
+
+    private Path configFile;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        configFile = Files.createTempFile("read-benchmark", ".properties");
+        final Properties properties = new Properties();
+        for (int i = 0; i < keys; i++) {
+            properties.put("bench.service.key." + i, "value-" + i);
+        }
+        properties.put(TIMEOUT, "1500");
+        try (OutputStream outputStream = Files.newOutputStream(configFile)) {
+            properties.store(outputStream, "Read benchmark");
+        }
+        DynamicConfig.builder().useCustomExecutor().runAsDaemon().sources(configFile.toString()).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        DynamicConfig.terminate();
+        Files.deleteIfExists(configFile);
+    }
+
+    @Benchmark
+    public String getValueHit() {
+        return DynamicConfig.getValue(HIT);
+    }
+
+    @Benchmark
+    public String getValueMiss() {
+        return DynamicConfig.getValue(MISS);
+    }
+
+    @Benchmark
+    public Integer getIntValue() {
+        return DynamicConfig.getIntValue(TIMEOUT);
+    }
+
+    @Benchmark
+    public int getInt() {
+        return DynamicConfig.getInt(TIMEOUT, 30);
+    }
+
+    @Benchmark
+    public String getConfigValueOrDefaultHit() {
+        return DynamicConfig.getConfigValueOrDefault(HIT, "default");
+    }
+
+    @Benchmark
+    public String getConfigValueOrDefaultMiss() {
+        return DynamicConfig.getConfigValueOrDefault(MISS, "default");
+    }
+
+    @Benchmark
+    public Integer getConfigValueOrDefaultTypedHit() {
+        return DynamicConfig.getConfigValueOrDefault(TIMEOUT, 30, Integer.class);
+    }
+
+    @Benchmark
+    public Integer getConfigValueOrDefaultTypedMiss() {
+        return DynamicConfig.getConfigValueOrDefault(MISS, 30, Integer.class);
+    }
+
+    @Benchmark
+    public Map<String, String> getConfigAsMap() {
+        return DynamicConfig.getConfigAsMap();
+    }
+}
@@ -0,0 +1,109 @@
+package com.routp.container.config;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.logging.Logger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Reload path of {@link DynamicConfig} from the change event of a source to the published generation: layer update,
+ * merge, fingerprint, snapshot build and change diff. Every invocation alternates between two versions of the source
+ * so each one publishes a new generation, {@code reload} changes every value and {@code reloadOneKey} a single one.
+ * {@code parseAndReload} also parses the properties of the source from memory. The change event is signalled through
+ * {@link DynamicConfig.TestHook}, without file system events: <br>
+ * java -jar benchmarks/target/benchmarks.jar ReloadBenchmark -prof gc
+ *
+ * @author prarout
+ * @since 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReloadBenchmark {
+
+    @Param({"100", "10000", "100000"})
+    private int keys;
+
+    private Path configFile;
+    private final List<Map<String, String>> versions = new ArrayList<>();
+    private final List<Map<String, String>> oneKeyVersions = new ArrayList<>();
+    private final byte[][] contents = new byte[2][];
+    private Function<ByteBuffer, Map<String, String>> propertiesParser;
+    private int invocation;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        // A publish is logged at INFO
+        Logger.getLogger(DynamicConfig.class.getName()).setLevel(java.util.logging.Level.WARNING);
+        for (int version = 0; version < 2; version++) {
+            final Map<String, String> entries = new HashMap<>();
+            final Map<String, String> oneKeyEntries = new HashMap<>();
+            for (int i = 0; i < keys; i++) {
+                entries.put("bench.service" + i % 100 + ".key." + i, "value-" + version + "-" + i);
+                oneKeyEntries.put("bench.service" + i % 100 + ".key." + i, "value-" + i);
+            }
+            oneKeyEntries.put("bench.service0.key.0", "value-" + version);
+            versions.add(entries);
+            oneKeyVersions.add(oneKeyEntries);
+            final Properties properties = new Properties();
+            properties.putAll(entries);
+            final ByteArrayOutputStream content = new ByteArrayOutputStream();
+            properties.store(content, "Reload benchmark");
+            contents[version] = content.toByteArray();
+        }
+        configFile = Files.createTempFile("reload-benchmark", ".properties");
+        try (OutputStream outputStream = Files.newOutputStream(configFile)) {
+            outputStream.write(contents[0]);
+        }
+        propertiesParser = DynamicConfig.TestHook.propertiesParser(configFile);
+        DynamicConfig.builder().useCustomExecutor().runAsDaemon().sources(configFile.toString()).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        DynamicConfig.terminate();
+        Files.deleteIfExists(configFile);
+    }
+
+    @Benchmark
+    public long reload() {
+        return DynamicConfig.TestHook.sourceChanged(0, versions.get(++invocation & 1));
+    }
+
+    @Benchmark
+    public long reloadOneKey() {
+        return DynamicConfig.TestHook.sourceChanged(0, oneKeyVersions.get(++invocation & 1));
+    }
+
+    @Benchmark
+    public long parseAndReload() {
+        return DynamicConfig.TestHook.sourceChanged(0,
+                propertiesParser.apply(ByteBuffer.wrap(contents[++invocation & 1])));
+    }
+}
@@ -0,0 +1,228 @@
+package com.routp.container.config;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import com.routp.container.config.handler.ConfigChangeHandler;
+
+/**
+ * An immutable change set between two consecutive config generations. It is computed once per reload and the same
+ * instance is passed to every {@link ConfigChangeHandler}, so handlers can act on the keys that were added, removed or
+ * modified instead of scanning a copy of the whole config.
+ *
+ * @author prarout
+ * @since 1.0.0
+ */
+public final class ConfigChange {
+
+    private final ConfigSnapshot previous;
+    private final ConfigSnapshot current;
+    private final Set<String> addedKeys;
+    private final Set<String> removedKeys;
+    private final Set<String> modifiedKeys;
+    private final Set<String> changedKeys;
+    private final long sourceModifiedMillis;
+
+    private ConfigChange(ConfigSnapshot previous, ConfigSnapshot current, Set<String> addedKeys,
+                         Set<String> removedKeys, Set<String> modifiedKeys, long sourceModifiedMillis) {
+        this.previous = previous;
+        this.current = current;
+        this.sourceModifiedMillis = sourceModifiedMillis;
+        this.addedKeys = Collections.unmodifiableSet(addedKeys);
+        this.removedKeys = Collections.unmodifiableSet(removedKeys);
+        this.modifiedKeys = Collections.unmodifiableSet(modifiedKeys);
+        final Set<String> changed = new HashSet<>(addedKeys);
+        changed.addAll(removedKeys);
+        changed.addAll(modifiedKeys);
+        this.changedKeys = Collections.unmodifiableSet(changed);
+    }
+
+    /**
+     * Computes the change set between two snapshots.
+     *
+     * @param previous snapshot before the reload
+     * @param current  snapshot after the reload
+     * @return {@link ConfigChange} between the snapshots
+     */
+    static ConfigChange between(ConfigSnapshot previous, ConfigSnapshot current) {
+        return between(previous, current, 0);
+    }
+
+    /**
+     * Computes the change set between two snapshots caused by a modification of the config sources.
+     *
+     * @param previous             snapshot before the reload
+     * @param current              snapshot after the reload
+     * @param sourceModifiedMillis modification time of the earliest source change in the reload, 0 if unknown
+     * @return {@link ConfigChange} between the snapshots
+     */
+    static ConfigChange between(ConfigSnapshot previous, ConfigSnapshot current, long sourceModifiedMillis) {
+        final Set<String> added = new HashSet<>();
+        final Set<String> removed = new HashSet<>();
+        final Set<String> modified = new HashSet<>();
+        for (int i = 0; i < current.capacity(); i++) {
+            final String key = current.keyAt(i);
+            if (key != null) {
+                final Object previousValue = previous.getRaw(key);
+                if (previousValue == null) {
+                    added.add(key);
+                } else if (isModified(previousValue, current.rawAt(i))) {
+                    modified.add(key);
+                }
+            }
+        }
+        for (int i = 0; i < previous.capacity(); i++) {
+            final String key = previous.keyAt(i);
+            if (key != null && current.getRaw(key) == null) {
+                removed.add(key);
+            }
+        }
+        return new ConfigChange(previous, current, added, removed, modified, sourceModifiedMillis);
+    }
+
+    /**
+     * Merges two consecutive changes into the change from the config before the earlier one to the config after the
+     * later one. A key changed back to its previous value is not changed in the merged change.
+     *
+     * @param earlier change of an earlier generation
+     * @param later   change of a later generation
+     * @return {@link ConfigChange} spanning both changes
+     */
+    static ConfigChange merge(ConfigChange earlier, ConfigChange later) {
+        final long modifiedMillis = earlier.sourceModifiedMillis == 0 ? later.sourceModifiedMillis
+                : later.sourceModifiedMillis == 0 ? earlier.sourceModifiedMillis
+                : Math.min(earlier.sourceModifiedMillis, later.sourceModifiedMillis);
+        return between(earlier.previous, later.current, modifiedMillis);
+    }
+
+    /**
+     * Lazy directory values are equal when their file metadata is equal. A replaced file whose previous content was
+     * already read is read again and compared by content, a file never read is not read for the comparison.
+     */
+    private static boolean isModified(Object previousValue, Object currentValue) {
+        if (previousValue.equals(currentValue)) {
+            return false;
+        }
+        if (previousValue instanceof LazyValue && currentValue instanceof LazyValue) {
+            final String previousContent = ((LazyValue) previousValue).getIfLoaded();
+            return previousContent == null || !previousContent.equals(((LazyValue) currentValue).get());
+        }
+        return true;
+    }
+
+    /**
+     * Returns the generation number of the config this change produced.
+     *
+     * @return generation number
+     */
+    public long getGeneration() {
+        return current.getGeneration();
+    }
+
+    /**
+     * Returns the modification time of the source change which caused this change, used to measure the propagation
+     * latency.
+     *
+     * @return epoch milliseconds, 0 if unknown
+     */
+    long sourceModifiedMillis() {
+        return sourceModifiedMillis;
+    }
+
+    /**
+     * Returns the keys which did not exist before the change.
+     *
+     * @return unmodifiable {@link Set} of added keys
+     */
+    public Set<String> getAddedKeys() {
+        return addedKeys;
+    }
+
+    /**
+     * Returns the keys which do not exist anymore after the change.
+     *
+     * @return unmodifiable {@link Set} of removed keys
+     */
+    public Set<String> getRemovedKeys() {
+        return removedKeys;
+    }
+
+    /**
+     * Returns the keys whose value was modified.
+     *
+     * @return unmodifiable {@link Set} of modified keys
+     */
+    public Set<String> getModifiedKeys() {
+        return modifiedKeys;
+    }
+
+    /**
+     * Returns all added, removed and modified keys.
+     *
+     * @return unmodifiable {@link Set} of changed keys
+     */
+    public Set<String> getChangedKeys() {
+        return changedKeys;
+    }
+
+    /**
+     * Returns {@code true} if the specified key was added, removed or modified.
+     *
+     * @param key key name in the config
+     * @return {@code true} if the key changed otherwise {@code false}
+     */
+    public boolean isChanged(String key) {
+        return changedKeys.contains(key);
+    }
+
+    /**
+     * Returns {@code true} if no key was added, removed or modified.
+     *
+     * @return {@code true} if nothing changed otherwise {@code false}
+     */
+    public boolean isEmpty() {
+        return changedKeys.isEmpty();
+    }
+
+    /**
+     * Returns value of the specified key before the change, null if the key did not exist. The file of a directory
+     * source entry is read on first access, its previous value is null if it was not read before the change.
+     *
+     * @param key key name in the config
+     * @return previous value of the key
+     */
+    public String getOldValue(String key) {
+        final Object value = previous.getRaw(key);
+        return value instanceof LazyValue ? ((LazyValue) value).getIfLoaded() : (String) value;
+    }
+
+    /**
+     * Returns value of the specified key after the change, null if the key does not exist.
+     *
+     * @param key key name in the config
+     * @return current value of the key
+     */
+    public String getNewValue(String key) {
+        return current.get(key);
+    }
+
+    /**
+     * Returns all config entries after the change, a read-only view of the snapshot of the generation shared by
+     * every caller.
+     *
+     * @return unmodifiable {@link Map} of the config after the change
+     */
+    public Map<String, String> getConfig() {
+        return current.asMap();
+    }
+
+    @Override
+    public String toString() {
+        return "ConfigChange{generation: " + getGeneration() +
+                ", added: " + addedKeys +
+                ", removed: " + removedKeys +
+                ", modified: " + modifiedKeys + "}";
+    }
+}
@@ -0,0 +1,104 @@
+package com.routp.container.config;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Emits the Java Flight Recorder events of the reload pipeline: {@code ConfigReload}, {@code HandlerInvocation} and
+ * {@code WatchEvent} in the category Dynamic Config, see {@link JfrEvents}. The events are disabled by default. On a
+ * JVM without the {@code jdk.jfr} module every method is a no-op and {@link JfrEvents} is never loaded, with the module
+ * a disabled event costs the allocation of an event object the JIT compiler usually eliminates.
+ * <p>
+ * A begun duration event is passed around as an {@link Object} so that callers do not link against {@code jdk.jfr},
+ * a null event is disabled and its commit does nothing.
+ * </p>
+ *
+ * @author prarout
+ * @since 1.0.0
+ */
+final class ConfigEvents {
+    private static final Logger logger = Logger.getLogger(ConfigEvents.class.getName());
+
+    static final String RECEIVED = "received";
+    static final String SUPPRESSED = "suppressed";
+    static final String DEBOUNCED = "debounced";
+    static final String COMPLETED = "completed";
+    static final String FAILED = "failed";
+    static final String TIMED_OUT = "timed out";
+
+    private static final boolean AVAILABLE = isAvailable();
+
+    private ConfigEvents() {
+    }
+
+    /**
+     * Begins a {@code ConfigReload} event.
+     *
+     * @return begun event, null if the event is disabled
+     */
+    static Object beginReload() {
+        return AVAILABLE ? JfrEvents.beginReload() : null;
+    }
+
+    /**
+     * Commits a {@code ConfigReload} event.
+     *
+     * @param event       event of {@link #beginReload()}, null does nothing
+     * @param sources     names of the reloaded sources
+     * @param generation  config generation after the reload
+     * @param changedKeys number of changed keys
+     * @param published   {@code false} if the reload was suppressed
+     */
+    static void commitReload(Object event, String sources, long generation, int changedKeys, boolean published) {
+        if (event != null) {
+            JfrEvents.commitReload(event, sources, generation, changedKeys, published);
+        }
+    }
+
+    /**
+     * Begins a {@code HandlerInvocation} event.
+     *
+     * @return begun event, null if the event is disabled
+     */
+    static Object beginHandlerInvocation() {
+        return AVAILABLE ? JfrEvents.beginHandlerInvocation() : null;
+    }
+
+    /**
+     * Commits a {@code HandlerInvocation} event.
+     *
+     * @param event      event of {@link #beginHandlerInvocation()}, null does nothing
+     * @param handler    class name of the handler
+     * @param generation config generation of the change
+     * @param outcome    {@link #COMPLETED}, {@link #FAILED} or {@link #TIMED_OUT}
+     */
+    static void commitHandlerInvocation(Object event, String handler, long generation, String outcome) {
+        if (event != null) {
+            JfrEvents.commitHandlerInvocation(event, handler, generation, outcome);
+        }
+    }
+
+    /**
+     * Emits a {@code WatchEvent} if it is enabled.
+     *
+     * @param source  config source file or directory, converted to a string only if the event is enabled
+     * @param outcome {@link #RECEIVED}, {@link #SUPPRESSED} or {@link #DEBOUNCED}
+     */
+    static void watch(Object source, String outcome) {
+        if (AVAILABLE) {
+            JfrEvents.watch(source, outcome);
+        }
+    }
+
+    private static boolean isAvailable() {
+        try {
+            Class.forName("jdk.jfr.Event", false, ConfigEvents.class.getClassLoader());
+            return JfrEvents.isAvailable();
+        } catch (ClassNotFoundException | LinkageError e) {
+            if (logger.isLoggable(Level.FINE)) {
+                logger.fine("Flight Recorder events are not emitted, jdk.jfr is not available. " + e.getMessage());
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.routp.container.config;
+
+import java.util.Objects;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A reusable, typed handle of one config key created by {@link DynamicConfig#key(String, Class, Object)}. The value
+ * is converted once per config generation and cached in the handle, a read is a volatile load of the current
+ * snapshot and a generation comparison. Once a {@link SnapshotPin} was taken in the process, a read also looks up the
+ * pin of the current thread. Handles are thread-safe and are meant to be kept in static final fields.
+ * <p>
+ * The value of the latest generation read and the value of one older generation, read by the threads with a
+ * {@link SnapshotPin} taken before a reload, are cached separately so that pinned and unpinned reads do not evict
+ * each other.
+ * </p>
+ * <p>
+ * Example: <br>
+ * private static final ConfigKey&lt;Integer&gt; TIMEOUT = DynamicConfig.key("test.timeout", Integer.class, 30); <br>
+ * int timeout = TIMEOUT.get();
+ * </p>
+ *
+ * @param <T> type of value
+ * @author prarout
+ * @since 1.0.0
+ */
+public final class ConfigKey<T> {
+    private static final Logger logger = Logger.getLogger(ConfigKey.class.getName());
+
+    private final String key;
+    private final Class<T> type;
+    private final T defaultValue;
+    // Value of the latest generation read
+    private volatile CachedValue<T> latestValue;
+    // Value of an older generation, read through a pin or a snapshot taken before the latest one
+    private volatile CachedValue<T> olderValue;
+
+    ConfigKey(String key, Class<T> type, T defaultValue) {
+        this.key = Objects.requireNonNull(key, "key");
+        this.type = Objects.requireNonNull(type, "type");
+        this.defaultValue = defaultValue;
+    }
+
+    /**
+     * Returns the value of the key in the current config generation, or in the generation pinned to the current
+     * thread by a {@link SnapshotPin}. The default value is returned if the key is not found or its value can not be
+     * converted to the type of this handle.
+     *
+     * @return value of the key
+     */
+    public T get() {
+        return get(DynamicConfig.currentSnapshot());
+    }
+
+    /**
+     * Returns the value of the key in the specified snapshot, the default value if the key is not found or its value
+     * can not be converted to the type of this handle. The value is cached for the generation of the snapshot.
+     *
+     * @param snapshot {@link ConfigSnapshot} to read, e.g. of {@link DynamicConfig#snapshot()}
+     * @return value of the key
+     */
+    public T get(ConfigSnapshot snapshot) {
+        final long generation = snapshot.getGeneration();
+        CachedValue<T> cached = latestValue;
+        if (cached != null && cached.generation == generation) {
+            return cached.value;
+        }
+        cached = olderValue;
+        if (cached != null && cached.generation == generation) {
+            return cached.value;
+        }
+        return refresh(snapshot);
+    }
+
+    /**
+     * Returns the key name of this handle.
+     *
+     * @return key name in the config
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * Returns the type of value of this handle.
+     *
+     * @return type of value
+     */
+    public Class<T> getType() {
+        return type;
+    }
+
+    /**
+     * Returns the default value of this handle.
+     *
+     * @return default value
+     */
+    public T getDefaultValue() {
+        return defaultValue;
+    }
+
+    /**
+     * Converts the value of the key from the specified snapshot and caches it for the snapshot's generation, in the
+     * latest slot unless a newer generation is already cached there. Racing refreshes of the same generation produce
+     * equal values, so the last write wins without locking.
+     */
+    private T refresh(ConfigSnapshot snapshot) {
+        T value = defaultValue;
+        final String rawValue = snapshot.get(key);
+        if (rawValue != null) {
+            try {
+                value = ValueParser.parse(key, rawValue, type);
+            } catch (Exception e) {
+                logger.log(Level.WARNING, "Config property key: " + key + " can not be converted to " +
+                        type.getName() + ", default value is used. " + e.getMessage());
+            }
+        }
+        final CachedValue<T> refreshed = new CachedValue<>(snapshot.getGeneration(), value);
+        final CachedValue<T> latest = latestValue;
+        if (latest == null || refreshed.generation >= latest.generation) {
+            latestValue = refreshed;
+        } else {
+            olderValue = refreshed;
+        }
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return "ConfigKey{" + key + ", " + type.getSimpleName() + "}";
+    }
+
+    /**
+     * Converted value of one generation
+     */
+    private static final class CachedValue<T> {
+        private final long generation;
+        private final T value;
+
+        private CachedValue(long generation, T value) {
+            this.generation = generation;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.routp.container.config;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The flattened entries of every config source kept as a separate layer. A change of one source replaces only its
+ * layer and the merged config is rebuilt by overlaying the layers, the unchanged sources are neither read nor parsed
+ * again. Layers are in priority order: an entry of a layer overrides the entries with the same key of all the layers
+ * after it, the same order Helidon merges its sources in.
+ * <p>
+ * Not thread-safe, the layers are only updated by the reload under the reload lock.
+ * </p>
+ *
+ * @author prarout
+ * @since 1.0.0
+ */
+final class ConfigLayers {
+
+    private final List<String> names;
+    private final List<Map<String, ?>> entries;
+    private final long[] fingerprints;
+
+    /**
+     * Creates empty layers.
+     *
+     * @param names layer names used in logs in priority order, highest priority first
+     */
+    ConfigLayers(List<String> names) {
+        this.names = new ArrayList<>(names);
+        this.entries = new ArrayList<>(Collections.nCopies(names.size(), Collections.emptyMap()));
+        this.fingerprints = new long[names.size()];
+    }
+
+    /**
+     * Replaces the entries of a layer.
+     *
+     * @param index        layer index in priority order
+     * @param layerEntries flattened entries of the source, values are {@link String} or {@link LazyValue}, not
+     *                     modified afterwards
+     * @return {@code true} if the entries of the layer changed, {@code false} if they are equal to the current ones
+     */
+    boolean update(int index, Map<String, ?> layerEntries) {
+        final long fingerprint = Fingerprint.of(layerEntries);
+        if (fingerprint == fingerprints[index] && entries.get(index).size() == layerEntries.size()) {
+            return false;
+        }
+        entries.set(index, layerEntries);
+        fingerprints[index] = fingerprint;
+        return true;
+    }
+
+    /**
+     * Overlays the layers into the merged config entries.
+     *
+     * @return merged config entries
+     */
+    Map<String, Object> merge() {
+        int size = 0;
+        for (Map<String, ?> layer : entries) {
+            size += layer.size();
+        }
+        final Map<String, Object> merged = new HashMap<>((int) (size / 0.75f) + 1);
+        // Lowest priority first, higher priority layers overwrite the same keys
+        for (int i = entries.size() - 1; i >= 0; i--) {
+            merged.putAll(entries.get(i));
+        }
+        return merged;
+    }
+
+    /**
+     * Returns the name of a layer.
+     *
+     * @param index layer index in priority order
+     * @return layer name
+     */
+    String name(int index) {
+        return names.get(index);
+    }
+
+    /**
+     * Returns the number of layers.
+     *
+     * @return number of layers
+     */
+    int size() {
+        return names.size();
+    }
+}
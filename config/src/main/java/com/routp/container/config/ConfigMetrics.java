@@ -0,0 +1,271 @@
+package com.routp.container.config;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Runtime metrics of one initialized {@link DynamicConfig}, exposed as the {@link DynamicConfigMXBean}. Counters on
+ * the read path are striped {@link LongAdder}s so that concurrent readers do not contend on one cache line, the
+ * reload and handler durations are recorded in {@link LatencyHistogram}s and the per-source timestamps in an
+ * {@link AtomicLongArray} indexed by layer. Attributes are computed when they are read.
+ *
+ * @author prarout
+ * @since 1.0.0
+ */
+final class ConfigMetrics implements DynamicConfigMXBean {
+    private static final Logger logger = Logger.getLogger(ConfigMetrics.class.getName());
+    private static final int HOT_KEYS = 20;
+
+    private final List<String> layerNames;
+    private final LongAdder suppressedChanges;
+    private final HandlerDispatcher handlerDispatcher;
+    // Null unless the reads of the keys are sampled
+    private final KeyReadSampler keyReadSampler;
+    private final LongAdder reads = new LongAdder();
+    private final LongAdder readMisses = new LongAdder();
+    // Source reads discarded as a read of the same source which started later was already received
+    private final LongAdder staleReads = new LongAdder();
+    private final LatencyHistogram reloadDuration = new LatencyHistogram();
+    private final LatencyHistogram parseDuration = new LatencyHistogram();
+    // Latency from the modification of a source to the publish of the config generation
+    private final LatencyHistogram publishLatency = new LatencyHistogram();
+    private final AtomicLongArray sourceModifiedMillis;
+    private final AtomicLongArray sourceReloadMillis;
+
+    /**
+     * @param layerNames        names of the config layers in priority order
+     * @param suppressedChanges counter of the change events dropped without a reload
+     * @param handlerDispatcher dispatcher holding the statistics of the change handlers
+     * @param keyReadSampler    sampler of the reads per key, null if the reads are not sampled
+     */
+    ConfigMetrics(List<String> layerNames, LongAdder suppressedChanges, HandlerDispatcher handlerDispatcher,
+                  KeyReadSampler keyReadSampler) {
+        this.layerNames = layerNames;
+        this.suppressedChanges = suppressedChanges;
+        this.handlerDispatcher = handlerDispatcher;
+        this.keyReadSampler = keyReadSampler;
+        this.sourceModifiedMillis = new AtomicLongArray(layerNames.size());
+        this.sourceReloadMillis = new AtomicLongArray(layerNames.size());
+    }
+
+    /**
+     * Counts a read through a getter of {@link DynamicConfig}. A read of a key found in the config is sampled if the
+     * reads of the keys are sampled, a read miss is only counted so that missing keys never take the place of the
+     * keys of the config in the sampler.
+     *
+     * @param key   key name in the config
+     * @param found {@code true} if the key is in the config, {@code false} on a read miss
+     */
+    void recordRead(String key, boolean found) {
+        reads.increment();
+        if (!found) {
+            readMisses.increment();
+        } else if (keyReadSampler != null) {
+            keyReadSampler.sample(key);
+        }
+    }
+
+    /**
+     * Records the read of a changed source.
+     *
+     * @param layer          layer index of the source
+     * @param modifiedMillis modification time of the source, 0 if unknown
+     */
+    void recordSourceReload(int layer, long modifiedMillis) {
+        sourceReloadMillis.set(layer, System.currentTimeMillis());
+        if (modifiedMillis > 0) {
+            sourceModifiedMillis.set(layer, modifiedMillis);
+        }
+    }
+
+    /**
+     * Returns the sampler of the reads per key.
+     *
+     * @return {@link KeyReadSampler}, null if the reads are not sampled
+     */
+    KeyReadSampler keyReadSampler() {
+        return keyReadSampler;
+    }
+
+    LatencyHistogram parseDuration() {
+        return parseDuration;
+    }
+
+    LatencyHistogram reloadDuration() {
+        return reloadDuration;
+    }
+
+    LatencyHistogram publishLatency() {
+        return publishLatency;
+    }
+
+    LongAdder suppressedChanges() {
+        return suppressedChanges;
+    }
+
+    LongAdder staleReads() {
+        return staleReads;
+    }
+
+    /**
+     * Registers these metrics with the platform MBean server, replacing the MBean of a previous initialization which
+     * was not unregistered. A failure is logged, the config works without its MBean.
+     */
+    void register() {
+        try {
+            final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            final ObjectName name = new ObjectName(OBJECT_NAME);
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+            server.registerMBean(this, name);
+        } catch (JMException | RuntimeException e) {
+            logger.log(Level.WARNING, "Dynamic config MBean could not be registered. " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Unregisters these metrics from the platform MBean server if they are the registered MBean.
+     */
+    void unregister() {
+        try {
+            final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            final ObjectName name = new ObjectName(OBJECT_NAME);
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+        } catch (JMException | RuntimeException e) {
+            logger.log(Level.WARNING, "Dynamic config MBean could not be unregistered. " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public long getGeneration() {
+        return DynamicConfig.currentSnapshot().getGeneration();
+    }
+
+    @Override
+    public int getKeyCount() {
+        return DynamicConfig.currentSnapshot().size();
+    }
+
+    @Override
+    public long getSnapshotBytes() {
+        return DynamicConfig.currentSnapshot().estimatedBytes();
+    }
+
+    @Override
+    public long getReloadCount() {
+        return reloadDuration.getCount();
+    }
+
+    @Override
+    public long getSuppressedChangeCount() {
+        return suppressedChanges.sum();
+    }
+
+    @Override
+    public long getStaleReadCount() {
+        return staleReads.sum();
+    }
+
+    @Override
+    public long getReloadDurationP50Micros() {
+        return reloadDuration.getPercentile(50, TimeUnit.MICROSECONDS);
+    }
+
+    @Override
+    public long getReloadDurationP99Micros() {
+        return reloadDuration.getPercentile(99, TimeUnit.MICROSECONDS);
+    }
+
+    @Override
+    public long getParseDurationP50Micros() {
+        return parseDuration.getPercentile(50, TimeUnit.MICROSECONDS);
+    }
+
+    @Override
+    public long getParseDurationP99Micros() {
+        return parseDuration.getPercentile(99, TimeUnit.MICROSECONDS);
+    }
+
+    @Override
+    public long getPublishLatencyP99Millis() {
+        return publishLatency.getPercentile(99, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Map<String, Long> getSourceLastModifiedMillis() {
+        return bySource(sourceModifiedMillis);
+    }
+
+    @Override
+    public Map<String, Long> getSourceLastReloadMillis() {
+        return bySource(sourceReloadMillis);
+    }
+
+    @Override
+    public Map<String, Long> getHandlerInvocations() {
+        return handlerDispatcher.handlerStatistics(HandlerDispatcher.HandlerStatistics::invocations);
+    }
+
+    @Override
+    public Map<String, Long> getHandlerFailures() {
+        return handlerDispatcher.handlerStatistics(HandlerDispatcher.HandlerStatistics::failures);
+    }
+
+    @Override
+    public Map<String, Long> getHandlerDurationP50Micros() {
+        return handlerDispatcher.handlerStatistics(
+                statistics -> statistics.duration().getPercentile(50, TimeUnit.MICROSECONDS));
+    }
+
+    @Override
+    public Map<String, Long> getHandlerDurationP99Micros() {
+        return handlerDispatcher.handlerStatistics(
+                statistics -> statistics.duration().getPercentile(99, TimeUnit.MICROSECONDS));
+    }
+
+    @Override
+    public long getReadCount() {
+        return reads.sum();
+    }
+
+    @Override
+    public long getReadMissCount() {
+        return readMisses.sum();
+    }
+
+    @Override
+    public Map<String, Long> getHotKeys() {
+        return keyReadSampler != null ? keyReadSampler.hotKeys(HOT_KEYS) : Collections.emptyMap();
+    }
+
+    @Override
+    public int getUnreadKeyCount() {
+        if (keyReadSampler == null || keyReadSampler.dropped() > 0) {
+            return -1;
+        }
+        return keyReadSampler.unreadKeys(DynamicConfig.currentSnapshot()).size();
+    }
+
+    private Map<String, Long> bySource(AtomicLongArray millis) {
+        final Map<String, Long> bySource = new LinkedHashMap<>();
+        for (int i = 0; i < layerNames.size(); i++) {
+            bySource.put(layerNames.get(i), millis.get(i));
+        }
+        return bySource;
+    }
+}
@@ -0,0 +1,506 @@
+package com.routp.container.config;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * An immutable, flattened key-value view of one generation of the config built once per reload.
+ * {@link DynamicConfig#snapshot()} returns the current one, every read of a snapshot sees the same generation however
+ * many reloads happen meanwhile, so the keys read while serving one request are consistent with each other. Every
+ * published snapshot has a generation one higher than the previous one, {@link DynamicConfig#awaitGeneration} waits
+ * for a generation to be published. Entries are stored in an open-addressing hash table (linear probing, load factor
+ * at most 0.5) so a lookup is a couple of array reads and never walks the {@link io.helidon.config.Config} tree.
+ * Instances are published through a single volatile write and can be read concurrently without locking.
+ * <p>
+ * Numeric and boolean values are parsed once while the snapshot is built and kept in primitive arrays next to the raw
+ * values, so the primitive getters neither parse nor allocate on the read path.
+ * </p>
+ * <p>
+ * A value may be a {@link LazyValue} of a directory source, its file is read and parsed on first access and shared
+ * by every snapshot the unchanged file is part of.
+ * </p>
+ *
+ * @author prarout
+ * @since 1.0.0
+ */
+public final class ConfigSnapshot {
+
+    static final ConfigSnapshot EMPTY = new ConfigSnapshot(0L, Collections.emptyMap());
+
+    // Flags of the primitive forms a raw value was parsed into
+    private static final byte INT = 1;
+    private static final byte LONG = 1 << 1;
+    private static final byte DOUBLE = 1 << 2;
+    private static final byte TRUE = 1 << 3;
+    private static final byte LAZY = 1 << 4;
+
+    private static final int ARRAY_HEADER_BYTES = 16;
+    private static final int LAZY_VALUE_BYTES = 64;
+
+    private final long generation;
+    private final long fingerprint;
+    private final String[] keys;
+    // String or LazyValue
+    private final Object[] values;
+    private final int[] hashes;
+    private final long[] longValues;
+    private final double[] doubleValues;
+    private final byte[] flags;
+    private final int mask;
+    private final int size;
+    // Read-only view of the entries shared by every caller of the same generation
+    private final Map<String, String> mapView = new SnapshotMap(this);
+
+    /**
+     * Builds a snapshot from the flattened config entries. Entries with a {@code null} key or value are ignored.
+     *
+     * @param generation generation number of this snapshot, increases with every published reload
+     * @param entries    flattened config entries, values are {@link String} or {@link LazyValue}
+     */
+    ConfigSnapshot(long generation, Map<String, ?> entries) {
+        this(generation, entries, Fingerprint.of(entries));
+    }
+
+    /**
+     * Builds a snapshot from the flattened config entries whose {@link Fingerprint} is already computed.
+     *
+     * @param generation  generation number of this snapshot, increases with every published reload
+     * @param entries     flattened config entries, values are {@link String} or {@link LazyValue}
+     * @param fingerprint {@link Fingerprint#of(Map)} of the entries
+     */
+    ConfigSnapshot(long generation, Map<String, ?> entries, long fingerprint) {
+        this.generation = generation;
+        this.fingerprint = fingerprint;
+        final int capacity = tableSizeFor(entries.size());
+        this.keys = new String[capacity];
+        this.values = new Object[capacity];
+        this.hashes = new int[capacity];
+        this.longValues = new long[capacity];
+        this.doubleValues = new double[capacity];
+        this.flags = new byte[capacity];
+        this.mask = capacity - 1;
+
+        int count = 0;
+        for (Map.Entry<String, ?> entry : entries.entrySet()) {
+            final String key = entry.getKey();
+            final Object value = entry.getValue();
+            if (key == null || value == null) {
+                continue;
+            }
+            final int hash = hash(key);
+            int index = hash & mask;
+            while (keys[index] != null && !(hashes[index] == hash && keys[index].equals(key))) {
+                index = (index + 1) & mask;
+            }
+            if (keys[index] == null) {
+                count++;
+            }
+            keys[index] = key;
+            values[index] = value;
+            hashes[index] = hash;
+        }
+        this.size = count;
+
+        for (int i = 0; i < capacity; i++) {
+            if (keys[i] != null) {
+                flags[i] = values[i] instanceof LazyValue ? LAZY :
+                        parsePrimitives((String) values[i], longValues, doubleValues, i);
+            }
+        }
+    }
+
+    /**
+     * Returns the generation number of this snapshot, increases with every published reload. {@link #EMPTY} has the
+     * generation 0.
+     *
+     * @return generation number
+     */
+    public long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Returns string value of the specified key, null if the key is not found.
+     *
+     * @param key key name in the config
+     * @return value of the specified key
+     */
+    public String getValue(String key) {
+        return get(key);
+    }
+
+    /**
+     * Returns {@link Boolean} value of the specified key, null if the key is not found.
+     *
+     * @param key key name in the config
+     * @return value of the specified key
+     */
+    public Boolean getBooleanValue(String key) {
+        return parse(key, Boolean.class);
+    }
+
+    /**
+     * Returns {@link Integer} value of the specified key, null if the key is not found.
+     *
+     * @param key key name in the config
+     * @return value of the specified key
+     * @throws io.helidon.config.ConfigMappingException if the value is not a valid int
+     */
+    public Integer getIntValue(String key) {
+        return parse(key, Integer.class);
+    }
+
+    /**
+     * Returns {@link Long} value of the specified key, null if the key is not found.
+     *
+     * @param key key name in the config
+     * @return value of the specified key
+     * @throws io.helidon.config.ConfigMappingException if the value is not a valid long
+     */
+    public Long getLongValue(String key) {
+        return parse(key, Long.class);
+    }
+
+    /**
+     * Returns {@link Double} value of the specified key, null if the key is not found.
+     *
+     * @param key key name in the config
+     * @return value of the specified key
+     * @throws io.helidon.config.ConfigMappingException if the value is not a valid double
+     */
+    public Double getDoubleValue(String key) {
+        return parse(key, Double.class);
+    }
+
+    /**
+     * Returns {@code true} if the specified key is in this snapshot.
+     *
+     * @param key key name in the config
+     * @return {@code true} if the key is found
+     */
+    public boolean containsKey(String key) {
+        return indexOf(key) >= 0;
+    }
+
+    private <T> T parse(String key, Class<T> type) {
+        final String rawValue = get(key);
+        return rawValue != null ? ValueParser.parse(key, rawValue, type) : null;
+    }
+
+    /**
+     * Returns the order independent fingerprint of the entries, equal snapshots have equal fingerprints.
+     *
+     * @return 64-bit fingerprint
+     */
+    long fingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * Returns the raw value of the specified key, null if the key is not found.
+     *
+     * @param key key name in the config
+     * @return raw value of the key
+     */
+    String get(String key) {
+        final int index = indexOf(key);
+        return index < 0 ? null : valueAt(index);
+    }
+
+    /**
+     * Returns the {@link String} or not yet resolved {@link LazyValue} of the specified key, null if the key is not
+     * found.
+     *
+     * @param key key name in the config
+     * @return raw or lazy value of the key
+     */
+    Object getRaw(String key) {
+        final int index = indexOf(key);
+        return index < 0 ? null : values[index];
+    }
+
+    /**
+     * Returns the int value of the specified key, the default value if the key is not found or its value is not a
+     * valid int.
+     *
+     * @param key          key name in the config
+     * @param defaultValue default value
+     * @return int value of the key
+     */
+    public int getInt(String key, int defaultValue) {
+        final int index = indexOf(key);
+        if (index >= 0) {
+            if ((flags[index] & INT) != 0) {
+                return (int) longValues[index];
+            }
+            if ((flags[index] & LAZY) != 0) {
+                final LazyValue.Loaded loaded = ((LazyValue) values[index]).load();
+                if (loaded != null && (loaded.flags & INT) != 0) {
+                    return (int) loaded.longValue[0];
+                }
+            }
+        }
+        return defaultValue;
+    }
+
+    /**
+     * Returns the long value of the specified key, the default value if the key is not found or its value is not a
+     * valid long.
+     *
+     * @param key          key name in the config
+     * @param defaultValue default value
+     * @return long value of the key
+     */
+    public long getLong(String key, long defaultValue) {
+        final int index = indexOf(key);
+        if (index >= 0) {
+            if ((flags[index] & LONG) != 0) {
+                return longValues[index];
+            }
+            if ((flags[index] & LAZY) != 0) {
+                final LazyValue.Loaded loaded = ((LazyValue) values[index]).load();
+                if (loaded != null && (loaded.flags & LONG) != 0) {
+                    return loaded.longValue[0];
+                }
+            }
+        }
+        return defaultValue;
+    }
+
+    /**
+     * Returns the double value of the specified key, the default value if the key is not found or its value is not a
+     * valid double.
+     *
+     * @param key          key name in the config
+     * @param defaultValue default value
+     * @return double value of the key
+     */
+    public double getDouble(String key, double defaultValue) {
+        final int index = indexOf(key);
+        if (index >= 0) {
+            if ((flags[index] & DOUBLE) != 0) {
+                return doubleValues[index];
+            }
+            if ((flags[index] & LAZY) != 0) {
+                final LazyValue.Loaded loaded = ((LazyValue) values[index]).load();
+                if (loaded != null && (loaded.flags & DOUBLE) != 0) {
+                    return loaded.doubleValue[0];
+                }
+            }
+        }
+        return defaultValue;
+    }
+
+    /**
+     * Returns the boolean value of the specified key, the default value if the key is not found. As with
+     * {@link Boolean#parseBoolean(String)} any value other than {@code true} (ignoring case) is {@code false}.
+     *
+     * @param key          key name in the config
+     * @param defaultValue default value
+     * @return boolean value of the key
+     */
+    public boolean getBoolean(String key, boolean defaultValue) {
+        final int index = indexOf(key);
+        if (index >= 0) {
+            if ((flags[index] & LAZY) != 0) {
+                final LazyValue.Loaded loaded = ((LazyValue) values[index]).load();
+                return loaded != null ? (loaded.flags & TRUE) != 0 : defaultValue;
+            }
+            return (flags[index] & TRUE) != 0;
+        }
+        return defaultValue;
+    }
+
+    /**
+     * Returns a mutable copy of the entries of this snapshot, lazy values are read.
+     *
+     * @return {@link Map} of config entries
+     */
+    Map<String, String> toMap() {
+        final Map<String, String> map = new HashMap<>(Math.max(16, size * 2));
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null) {
+                final String value = valueAt(i);
+                if (value != null) {
+                    map.put(keys[i], value);
+                }
+            }
+        }
+        return map;
+    }
+
+    /**
+     * Returns a read-only {@link Map} view of the entries of this snapshot. The view is created with the snapshot and
+     * shared by every caller, lookups and iteration read the snapshot without copying.
+     *
+     * @return unmodifiable {@link Map} of config entries
+     */
+    public Map<String, String> asMap() {
+        return mapView;
+    }
+
+    /**
+     * Returns the number of slots of the table, the upper bound of the index of {@link #keyAt(int)}.
+     *
+     * @return number of slots
+     */
+    int capacity() {
+        return keys.length;
+    }
+
+    /**
+     * Returns the key stored at a slot of the table, null if the slot is empty.
+     *
+     * @param index slot of the table
+     * @return key at the slot
+     */
+    String keyAt(int index) {
+        return keys[index];
+    }
+
+    /**
+     * Returns the value stored at a slot of the table, a lazy value is read. Null if the slot is empty.
+     *
+     * @param index slot of the table
+     * @return value at the slot
+     */
+    String valueAt(int index) {
+        final Object value = values[index];
+        return value instanceof LazyValue ? ((LazyValue) value).get() : (String) value;
+    }
+
+    /**
+     * Returns the {@link String} or not yet resolved {@link LazyValue} stored at a slot of the table, null if the slot
+     * is empty.
+     *
+     * @param index slot of the table
+     * @return raw or lazy value at the slot
+     */
+    Object rawAt(int index) {
+        return values[index];
+    }
+
+    /**
+     * Estimates the heap size of this snapshot: the arrays of the table and the key and value strings, assuming
+     * compact Latin-1 strings. A value of a directory source is counted once its file is read.
+     *
+     * @return estimated size in bytes
+     */
+    long estimatedBytes() {
+        // Header and one 4-byte reference, 4-byte hash, 8-byte long, 8-byte double and one flag byte per slot
+        long bytes = 6 * ARRAY_HEADER_BYTES + (long) keys.length * 25;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null) {
+                bytes += stringBytes(keys[i]);
+                final Object value = values[i];
+                if (value instanceof LazyValue) {
+                    bytes += LAZY_VALUE_BYTES + stringBytes(((LazyValue) value).getIfLoaded());
+                } else {
+                    bytes += stringBytes((String) value);
+                }
+            }
+        }
+        return bytes;
+    }
+
+    private static long stringBytes(String value) {
+        // String object with its hash and coder fields plus the header of the byte array
+        return value == null ? 0 : 24 + ARRAY_HEADER_BYTES + value.length();
+    }
+
+    /**
+     * Returns the number of entries in this snapshot.
+     *
+     * @return number of entries
+     */
+    public int size() {
+        return size;
+    }
+
+    private int indexOf(String key) {
+        if (key == null) {
+            return -1;
+        }
+        final int hash = hash(key);
+        int index = hash & mask;
+        String candidate;
+        while ((candidate = keys[index]) != null) {
+            if (hashes[index] == hash && (candidate == key || candidate.equals(key))) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Parses a raw value into its primitive forms. Values are scanned first so that building a snapshot does not pay
+     * for the exceptions of the many values which are plainly not numbers.
+     *
+     * @param value        raw value
+     * @param longValues   receives the long value at the index
+     * @param doubleValues receives the double value at the index
+     * @param index        index of the value in the arrays
+     * @return flags of the parsed primitive forms
+     */
+    static byte parsePrimitives(String value, long[] longValues, double[] doubleValues, int index) {
+        byte parsed = "true".equalsIgnoreCase(value) ? TRUE : 0;
+        final int length = value.length();
+        if (length == 0) {
+            return parsed;
+        }
+        boolean integral = true;
+        for (int i = 0; i < length && integral; i++) {
+            final char c = value.charAt(i);
+            integral = (c >= '0' && c <= '9') || (i == 0 && (c == '-' || c == '+'));
+        }
+        try {
+            if (integral) {
+                final long longValue = Long.parseLong(value);
+                longValues[index] = longValue;
+                parsed |= LONG;
+                if (longValue >= Integer.MIN_VALUE && longValue <= Integer.MAX_VALUE) {
+                    parsed |= INT;
+                }
+            }
+        } catch (NumberFormatException e) {
+            // A lone sign or out of the range of long, may still be a double
+        }
+        // Double.parseDouble also accepts surrounding whitespace, NaN, Infinity and hexadecimal notations
+        final char first = value.charAt(0);
+        if ((first >= '0' && first <= '9') || first == '-' || first == '+' || first == '.' || first == 'N'
+                || first == 'I' || first <= ' ') {
+            try {
+                doubleValues[index] = Double.parseDouble(value);
+                parsed |= DOUBLE;
+            } catch (NumberFormatException e) {
+                // Not a number, kept as a raw value only
+            }
+        }
+        return parsed;
+    }
+
+    /**
+     * Spreads the higher bits of the string hash to the lower ones so that keys sharing a long common prefix do not
+     * cluster in the table.
+     */
+    private static int hash(String key) {
+        final int h = key.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Returns a power of two table size keeping the load factor at or below 0.5.
+     */
+    private static int tableSizeFor(int entries) {
+        final int minimum = Math.max(2, entries * 2);
+        final int capacity = Integer.highestOneBit(minimum - 1) << 1;
+        return capacity > 0 ? capacity : 1 << 30;
+    }
+
+    @Override
+    public String toString() {
+        return "ConfigSnapshot{generation: " + generation + ", keys: " + size + "}";
+    }
+}
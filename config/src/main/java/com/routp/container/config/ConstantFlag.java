@@ -0,0 +1,184 @@
+package com.routp.container.config;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MutableCallSite;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A boolean config key the JIT compiler can treat as a constant, created by {@link DynamicConfig#constantFlag}. The
+ * value is the target of a {@link MutableCallSite}, a constant {@link MethodHandle}, and is only replaced when a
+ * reload publishes a generation changing the key. The code compiled with the folded value is then deoptimized and
+ * recompiled with the new one, so a flag costs nothing while the key does not change and a recompilation when it
+ * does. Meant for the few flags checked in tight loops, use {@link DynamicConfig#getBoolean} or a {@link ConfigKey}
+ * for keys which change often.
+ * <p>
+ * The value is folded only when the JIT can see the handle as a constant, the handle of {@link #handle()} is to be
+ * kept in a static final field and invoked with {@code invokeExact}. {@link #get()} reads the same call site through
+ * this object and is not folded. <br>
+ * private static final MethodHandle FEATURE_X = DynamicConfig.constantFlag("feature.x").handle(); <br>
+ * if ((boolean) FEATURE_X.invokeExact()) { ... }
+ * </p>
+ * <p>
+ * A flag reads the current generation of the config, a {@link SnapshotPin} of the reading thread is ignored, and its
+ * reads are not counted by the read metrics. As with {@link DynamicConfig#getBoolean} a value other than {@code true}
+ * is {@code false}, the default value is returned when the key is not found or {@link DynamicConfig} is not
+ * initialized.
+ * </p>
+ *
+ * @author prarout
+ * @since 1.0.0
+ */
+public final class ConstantFlag {
+    private static final Logger logger = Logger.getLogger(ConstantFlag.class.getName());
+
+    // One flag per key and default value, so that every caller shares the call site
+    private static final ConcurrentMap<String, ConstantFlag> defaultFalseFlags = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, ConstantFlag> defaultTrueFlags = new ConcurrentHashMap<>();
+    // Serializes the updates of the call sites, the reads never lock
+    private static final Object updateLock = new Object();
+
+    private final String key;
+    private final boolean defaultValue;
+    private final MutableCallSite callSite;
+    private final MethodHandle invoker;
+    // Only accessed under the update lock
+    private boolean value;
+
+    private ConstantFlag(String key, boolean defaultValue, boolean value) {
+        this.key = key;
+        this.defaultValue = defaultValue;
+        this.value = value;
+        this.callSite = new MutableCallSite(MethodHandles.constant(boolean.class, value));
+        this.invoker = callSite.dynamicInvoker();
+    }
+
+    /**
+     * Returns the flag of a key, created with the value of the current config generation on first use.
+     *
+     * @param key          key name in the config
+     * @param defaultValue value when the key is not found
+     * @return {@link ConstantFlag} of the key
+     */
+    static ConstantFlag of(String key, boolean defaultValue) {
+        Objects.requireNonNull(key, "key");
+        final ConcurrentMap<String, ConstantFlag> flags = defaultValue ? defaultTrueFlags : defaultFalseFlags;
+        final ConstantFlag flag = flags.get(key);
+        if (flag != null) {
+            return flag;
+        }
+        synchronized (updateLock) {
+            // Created under the update lock so that a reload racing with the creation is not missed
+            return flags.computeIfAbsent(key, name -> new ConstantFlag(name, defaultValue,
+                    DynamicConfig.unpinnedSnapshot().getBoolean(name, defaultValue)));
+        }
+    }
+
+    /**
+     * Updates the flags of the keys changed by a published generation, the code compiled with their previous value
+     * is deoptimized.
+     *
+     * @param change   {@link ConfigChange} of the published generation
+     * @param snapshot published {@link ConfigSnapshot}
+     */
+    static void changed(ConfigChange change, ConfigSnapshot snapshot) {
+        synchronized (updateLock) {
+            final List<MutableCallSite> changedSites = new ArrayList<>();
+            update(defaultFalseFlags, change, snapshot, changedSites);
+            update(defaultTrueFlags, change, snapshot, changedSites);
+            sync(changedSites);
+        }
+    }
+
+    /**
+     * Updates every flag to a snapshot replacing the whole config, on initialization and termination.
+     *
+     * @param snapshot {@link ConfigSnapshot} of the config, empty when terminated
+     */
+    static void reset(ConfigSnapshot snapshot) {
+        synchronized (updateLock) {
+            final List<MutableCallSite> changedSites = new ArrayList<>();
+            update(defaultFalseFlags, null, snapshot, changedSites);
+            update(defaultTrueFlags, null, snapshot, changedSites);
+            sync(changedSites);
+        }
+    }
+
+    private static void update(ConcurrentMap<String, ConstantFlag> flags, ConfigChange change,
+                               ConfigSnapshot snapshot, List<MutableCallSite> changedSites) {
+        for (ConstantFlag flag : flags.values()) {
+            if (change == null || change.isChanged(flag.key)) {
+                final boolean value = snapshot.getBoolean(flag.key, flag.defaultValue);
+                if (value != flag.value) {
+                    flag.value = value;
+                    flag.callSite.setTarget(MethodHandles.constant(boolean.class, value));
+                    changedSites.add(flag.callSite);
+                    if (logger.isLoggable(Level.FINE)) {
+                        logger.fine("Constant flag " + flag.key + " changed to " + value + ".");
+                    }
+                }
+            }
+        }
+    }
+
+    private static void sync(List<MutableCallSite> changedSites) {
+        if (!changedSites.isEmpty()) {
+            // Makes the new targets visible to every thread, including the ones running compiled code
+            MutableCallSite.syncAll(changedSites.toArray(new MutableCallSite[0]));
+        }
+    }
+
+    /**
+     * Returns the value of the flag. Reads the call site through this object, see {@link #handle()} for the read
+     * folded by the JIT.
+     *
+     * @return value of the flag
+     */
+    public boolean get() {
+        try {
+            return (boolean) invoker.invokeExact();
+        } catch (Throwable e) {
+            // A constant handle does not throw
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Returns the {@link MethodHandle} of type {@code ()boolean} returning the value of the flag. Kept in a static
+     * final field and invoked with {@code invokeExact}, the JIT inlines the current value as a constant.
+     *
+     * @return invoker of the call site of the flag
+     */
+    public MethodHandle handle() {
+        return invoker;
+    }
+
+    /**
+     * Returns the key name of this flag.
+     *
+     * @return key name in the config
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * Returns the default value of this flag.
+     *
+     * @return default value
+     */
+    public boolean getDefaultValue() {
+        return defaultValue;
+    }
+
+    @Override
+    public String toString() {
+        return "ConstantFlag{" + key + ", default: " + defaultValue + "}";
+    }
+}
@@ -0,0 +1,141 @@
+package com.routp.container.config;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import io.helidon.config.ConfigException;
+
+/**
+ * A directory config source whose entries are the regular files of the directory, the file name is the key and the
+ * content is the value. Helidon's directory source reads every file on every reload, a mounted ConfigMap or Secret
+ * may hold thousands of files and large blobs of which few are ever read.
+ * <p>
+ * A scan only lists the file names and reads their metadata, every value is a {@link LazyValue} read on first access.
+ * A rescan after a change event keeps the values of the files whose metadata did not change, so an unchanged file is
+ * not read again and its already read content is kept. A file which could not be read gets a new value.
+ * </p>
+ * Scans are not thread-safe. The initial load runs on the thread building {@link DynamicConfig}, before the source is
+ * ticked, and every rescan runs on the single reloader thread: a tick only hands the rescan to the reload executor
+ * of {@link SourceTicks#onTick}. The executor runs one rescan at a time, and its task hand-off makes the state of a
+ * scan visible to the next one.
+ *
+ * @author prarout
+ * @since 1.0.0
+ */
+final class DirectorySource {
+    private static final Logger logger = Logger.getLogger(DirectorySource.class.getName());
+
+    private final Path directory;
+    private Map<String, LazyValue> entries = Collections.emptyMap();
+    private long modifiedMillis;
+    private boolean unlisted;
+
+    /**
+     * @param directory config source directory
+     */
+    DirectorySource(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Lists the files of the directory at initialization, the directory is mandatory.
+     *
+     * @return unmodifiable {@link Map} of file names to {@link LazyValue}
+     * @throws ConfigException if the directory does not exist or can not be listed
+     */
+    Map<String, LazyValue> load() {
+        try {
+            return list();
+        } catch (IOException e) {
+            throw new ConfigException("Cannot load data from mandatory source " + directory + ". " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Lists the files of the directory after a change event and returns the entries, unchanged files keep the value of
+     * the previous scan. A missing directory has no entries, a directory which can not be listed keeps its previous
+     * entries.
+     *
+     * @return unmodifiable {@link Map} of file names to {@link LazyValue}
+     */
+    Map<String, LazyValue> scan() {
+        try {
+            return list();
+        } catch (NoSuchFileException e) {
+            logger.warning("Config directory " + directory + " does not exist.");
+            entries = Collections.emptyMap();
+            modifiedMillis = 0;
+            return entries;
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Config directory " + directory + " can not be listed. " + e.getMessage(), e);
+            return entries;
+        }
+    }
+
+    /**
+     * Returns {@code true} if the directory could not be listed by the last scan.
+     *
+     * @return {@code true} if the directory is missing or can not be listed
+     */
+    boolean isUnlisted() {
+        return unlisted;
+    }
+
+    private Map<String, LazyValue> list() throws IOException {
+        unlisted = true;
+        final Map<String, LazyValue> previous = entries;
+        final Map<String, LazyValue> scanned = new HashMap<>(Math.max(16, (int) (previous.size() / 0.75f) + 1));
+        int changed = 0;
+        long changedMillis = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                final BasicFileAttributes attributes;
+                try {
+                    // Follows symbolic links, the keys of a mounted ConfigMap are links into its ..data directory
+                    attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                } catch (NoSuchFileException e) {
+                    continue;
+                }
+                if (!attributes.isRegularFile()) {
+                    continue;
+                }
+                final String key = file.getFileName().toString();
+                final LazyValue value = previous.get(key);
+                // A value missing from the previous scan is read again by a new value
+                if (value != null && !value.isMissing() && value.isUnchanged(attributes)) {
+                    scanned.put(key, value);
+                } else {
+                    scanned.put(key, new LazyValue(file, attributes));
+                    changed++;
+                    changedMillis = Math.max(changedMillis, attributes.lastModifiedTime().toMillis());
+                }
+            }
+        }
+        unlisted = false;
+        if (logger.isLoggable(Level.FINE)) {
+            logger.fine("Config directory " + directory + " scanned, " + scanned.size() + " files of which " + changed +
+                    " new or changed.");
+        }
+        entries = Collections.unmodifiableMap(scanned);
+        modifiedMillis = changedMillis;
+        return entries;
+    }
+
+    /**
+     * Returns the latest modification time of the files which were new or changed in the last scan.
+     *
+     * @return epoch milliseconds, 0 if no file was new or changed
+     */
+    long modifiedMillis() {
+        return modifiedMillis;
+    }
+}
@@ -1,24 +1,31 @@
 package com.routp.container.config;
 
-import static io.helidon.config.PollingStrategies.regular;
-import static io.helidon.config.PollingStrategies.watch;
-import static java.time.Duration.ofSeconds;
-
+import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collections;
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.ServiceLoader;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -28,11 +35,11 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.concurrent.BasicThreadFactory;
 
 import com.routp.container.config.handler.ChangeHandler;
+import com.routp.container.config.handler.ConfigChangeHandler;
 
 import io.helidon.config.Config;
+import io.helidon.config.ConfigException;
 import io.helidon.config.ConfigSources;
-import io.helidon.config.PollingStrategies;
-import io.helidon.config.spi.AbstractConfigSource;
 import io.helidon.config.spi.ConfigSource;
 
 
@@ -57,6 +64,10 @@ public final class DynamicConfig {
 
     private static volatile DynamicConfig dynamicConfig;
     private static final Object syncLock = new Object();
+    // Generations keep increasing across terminate and re-initialization so that cached values never match a stale one
+    private static final AtomicLong generationCounter = new AtomicLong();
+    private static final Duration DEFAULT_HANDLER_TIMEOUT = Duration.ofSeconds(30);
+    private static final LatencyHistogram EMPTY_HISTOGRAM = new LatencyHistogram();
 
     private boolean includeSysEnvProps;
     private boolean useCustomExecutor;
@@ -64,10 +75,29 @@ public final class DynamicConfig {
     private Strategy strategy;
     private PollFrequency pollFrequency;
     private Set<String> configFileSystemSet;
-    private Set<Class<? extends ChangeHandler>> changeHandlers;
+    private HandlerDispatcher handlerDispatcher;
+    private ReloadDebouncer reloadDebouncer;
+    private ScheduledExecutorService reloadExecutor;
+    // Latest reloaded entries of each layer waiting for the reload writer
+    private final ReloadPipeline reloadPipeline;
+    // Writer of the last known good config file, null if none is configured
+    private final LastKnownGoodWriter lastKnownGoodWriter;
+    private final ExecutorService lastKnownGoodExecutor;
+    // Sources replaced by the last known good config or keeping their last read entries until they are read, only
+    // accessed under the sync lock
+    private final BitSet unreadLayers;
+    private volatile boolean lastKnownGoodInUse;
+    // Reload, read and handler metrics also exposed as the DynamicConfigMXBean
+    private final ConfigMetrics metrics;
 
     private ScheduledExecutorService configWatchExecutor;
-    private Config config;
+    private SourceWatcher sourceWatcher;
+    private SourcePoller sourcePoller;
+    // One config per source, only accessed under the sync lock
+    private final ConfigLayers configLayers;
+    private volatile ConfigSnapshot snapshot;
+    // Callers of awaitGeneration and nextChange waiting for a generation to be published
+    private final GenerationWaiters generationWaiters = new GenerationWaiters();
 
 
     /**
@@ -75,8 +105,12 @@ public final class DynamicConfig {
      */
     private DynamicConfig(boolean includeSysEnvProps, boolean useCustomExecutor, boolean runAsDaemon,
                           Strategy strategy, PollFrequency pollFrequency, Set<String> configFileSystemSet,
-                          ScheduledExecutorService configWatchExecutor,
-                          Set<Class<? extends ChangeHandler>> changeHandlers, Config config) {
+                          ScheduledExecutorService configWatchExecutor, SourceWatcher sourceWatcher,
+                          SourcePoller sourcePoller, ScheduledExecutorService reloadExecutor, ConfigMetrics metrics,
+                          HandlerDispatcher handlerDispatcher, Duration debounceQuietPeriod,
+                          Duration debounceMaxDelay, ConfigLayers configLayers, ReloadPipeline reloadPipeline,
+                          ExecutorService lastKnownGoodExecutor, LastKnownGoodWriter lastKnownGoodWriter,
+                          BitSet unreadLayers) {
         this.includeSysEnvProps = includeSysEnvProps;
         this.useCustomExecutor = useCustomExecutor;
         this.runAsDaemon = runAsDaemon;
@@ -84,9 +118,21 @@ public final class DynamicConfig {
         this.pollFrequency = pollFrequency;
         this.configFileSystemSet = configFileSystemSet;
         this.configWatchExecutor = configWatchExecutor;
-        this.changeHandlers = changeHandlers;
-        this.config = config;
-
+        this.sourceWatcher = sourceWatcher;
+        this.sourcePoller = sourcePoller;
+        this.metrics = metrics;
+        this.handlerDispatcher = handlerDispatcher;
+        this.reloadExecutor = reloadExecutor;
+        this.reloadDebouncer = new ReloadDebouncer(reloadExecutor, debounceQuietPeriod.toNanos(),
+                debounceMaxDelay.toNanos(), reloadPipeline::drain);
+        this.configLayers = configLayers;
+        this.reloadPipeline = reloadPipeline;
+        this.lastKnownGoodExecutor = lastKnownGoodExecutor;
+        this.lastKnownGoodWriter = lastKnownGoodWriter;
+        this.unreadLayers = unreadLayers;
+        this.lastKnownGoodInUse = !unreadLayers.isEmpty();
+        final Map<String, Object> entries = configLayers.merge();
+        this.snapshot = new ConfigSnapshot(generationCounter.incrementAndGet(), entries);
     }
 
     /**
@@ -105,7 +151,15 @@ public final class DynamicConfig {
         private String[] sources;
         private Strategy strategy;
         private PollFrequency pollFrequency;
-        private Set<Class<? extends ChangeHandler>> changeHandlers = new HashSet<>();
+        private boolean discoverHandlers;
+        // Keyed by the handler class or by the handler instance
+        private Map<Object, HandlerRegistration> changeHandlers = new LinkedHashMap<>();
+        private ExecutorService handlerExecutor;
+        private Duration handlerTimeout = DEFAULT_HANDLER_TIMEOUT;
+        private Duration debounceQuietPeriod = Duration.ZERO;
+        private Duration debounceMaxDelay = Duration.ZERO;
+        private int keyReadSamplePeriod;
+        private String lastKnownGood;
 
         /**
          * Includes system and environment properties to {@link Config} object.
@@ -180,25 +234,150 @@ public final class DynamicConfig {
         }
 
         /**
-         * Adds one {@link ChangeHandler} implementation class that will be called when there is a change event
+         * Adds one {@link ConfigChangeHandler} or {@link ChangeHandler} implementation class that will be called when
+         * there is a change event. The class is instantiated once with its public no-argument constructor when the
+         * {@link DynamicConfig} is built.
+         *
+         * @param configHandler {@link ConfigChangeHandler}
+         * @return current {@link DynamicConfig.Builder} instance
+         */
+        public Builder handler(Class<? extends ConfigChangeHandler> configHandler) {
+            return handler(configHandler, new String[0]);
+        }
+
+        /**
+         * Adds one {@link ConfigChangeHandler} or {@link ChangeHandler} implementation class that will be called only
+         * when one of the specified keys changes. A key ending with {@code *} is a prefix, e.g. {@code log.*} matches
+         * every key starting with {@code log.} and {@code *} matches every key. Calling this method again for the same
+         * class adds the keys to its subscription.
+         *
+         * @param configHandler {@link ConfigChangeHandler}
+         * @param keys          keys or key prefixes the handler is subscribed to, none subscribes to every change event
+         * @return current {@link DynamicConfig.Builder} instance
+         */
+        public Builder handler(Class<? extends ConfigChangeHandler> configHandler, String... keys) {
+            if (configHandler != null) {
+                changeHandlers.computeIfAbsent(configHandler,
+                        handler -> new HandlerRegistration(configHandler)).subscribe(keys);
+            }
+            return this;
+        }
+
+        /**
+         * Adds one {@link ConfigChangeHandler} or {@link ChangeHandler} instance or lambda that will be called when
+         * there is a change event on one of the specified keys. A key ending with {@code *} is a prefix, no keys
+         * subscribes to every change event. The same instance is called on every change event.
+         *
+         * @param configHandler {@link ConfigChangeHandler} instance
+         * @param keys          keys or key prefixes the handler is subscribed to, none subscribes to every change event
+         * @return current {@link DynamicConfig.Builder} instance
+         */
+        public Builder handler(ConfigChangeHandler configHandler, String... keys) {
+            if (configHandler != null) {
+                changeHandlers.computeIfAbsent(configHandler,
+                        handler -> new HandlerRegistration(configHandler)).subscribe(keys);
+            }
+            return this;
+        }
+
+        /**
+         * Adds the {@link ConfigChangeHandler} implementations registered as services in
+         * {@code META-INF/services/com.routp.container.config.handler.ConfigChangeHandler}. They are loaded once with
+         * {@link ServiceLoader} when the {@link DynamicConfig} is built and called on every change event.
          *
-         * @param configHandler {@link ChangeHandler}
          * @return current {@link DynamicConfig.Builder} instance
          */
-        public Builder handler(Class<? extends ChangeHandler> configHandler) {
-            changeHandlers.add(configHandler);
+        public Builder discoverHandlers() {
+            this.discoverHandlers = true;
             return this;
         }
 
         /**
-         * Adds a list of {@link ChangeHandler} implementation classes those will be called when there is a change event
+         * Adds a list of {@link ConfigChangeHandler} or {@link ChangeHandler} implementation classes those will be
+         * called when there is a change event
          *
-         * @param handlers list of config handlers {@link ChangeHandler}
+         * @param handlers list of config handlers {@link ConfigChangeHandler}
          * @return current {@link DynamicConfig.Builder} instance
          */
         @SafeVarargs
-        public final Builder handlers(Class<? extends ChangeHandler>... handlers) {
-            Collections.addAll(changeHandlers, handlers);
+        public final Builder handlers(Class<? extends ConfigChangeHandler>... handlers) {
+            for (Class<? extends ConfigChangeHandler> configHandler : handlers) {
+                handler(configHandler);
+            }
+            return this;
+        }
+
+        /**
+         * Sets the executor service the change handlers run on. Handlers run concurrently with each other while one
+         * handler receives the change events one at a time and in order. By default a pool of daemon threads owned by
+         * {@link DynamicConfig} is used. A provided executor service is not shut down on
+         * {@link DynamicConfig#terminate()}.
+         *
+         * @param executorService executor service to run change handlers on
+         * @return current {@link DynamicConfig.Builder} instance
+         */
+        public Builder handlerExecutor(ExecutorService executorService) {
+            this.handlerExecutor = executorService;
+            return this;
+        }
+
+        /**
+         * Sets the maximum duration of one handler invocation, a handler running longer is interrupted and reported.
+         * Default value 30 seconds, zero or a negative duration disables the timeout.
+         *
+         * @param timeout maximum duration of one handler invocation
+         * @return current {@link DynamicConfig.Builder} instance
+         */
+        public Builder handlerTimeout(Duration timeout) {
+            this.handlerTimeout = timeout != null ? timeout : DEFAULT_HANDLER_TIMEOUT;
+            return this;
+        }
+
+        /**
+         * Collapses a burst of change events into one reload and one handler dispatch. The config is reloaded once no
+         * change event was received for the quiet period, but at the latest after the maximum delay since the first
+         * event of the burst. Updating a mounted Kubernetes ConfigMap for instance produces several file system events
+         * for one logical update. By default every change event is reloaded immediately.
+         *
+         * @param quietPeriod period without change events after which the config is reloaded
+         * @param maxDelay    maximum delay between the first change event of a burst and the reload
+         * @return current {@link DynamicConfig.Builder} instance
+         */
+        public Builder debounce(Duration quietPeriod, Duration maxDelay) {
+            this.debounceQuietPeriod = quietPeriod != null && !quietPeriod.isNegative() ? quietPeriod : Duration.ZERO;
+            this.debounceMaxDelay = maxDelay != null && maxDelay.compareTo(debounceQuietPeriod) > 0 ? maxDelay :
+                    debounceQuietPeriod;
+            return this;
+        }
+
+        /**
+         * Samples the reads of the getters per key to report the most read keys with
+         * {@link DynamicConfig#getHotKeys(int)} and the keys never read since initialization with
+         * {@link DynamicConfig#getUnreadKeys()}. One read in {@code period} is sampled
+         * at random, a period of 1 counts every read and a larger period keeps the cost on the read path low at the
+         * price of estimated counts. Reads of {@link ConfigKey} handles are not sampled. By default reads are not
+         * sampled.
+         *
+         * @param period one read in this number of reads is sampled, 0 or less disables the sampling
+         * @return current {@link DynamicConfig.Builder} instance
+         */
+        public Builder sampleKeyReads(int period) {
+            this.keyReadSamplePeriod = Math.max(0, period);
+            return this;
+        }
+
+        /**
+         * Persists every config generation published while all the sources could be read to the specified file, the
+         * last known good config. A source which can not be read when the {@link DynamicConfig} is built is then
+         * replaced by the entries of the last known good config instead of failing the build, until the source is read
+         * with at least one entry. The file is written after every reload, a debounce keeps bursts of changes from
+         * writing it for every change.
+         *
+         * @param file path of the last known good config file, its directory must exist
+         * @return current {@link DynamicConfig.Builder} instance
+         */
+        public Builder lastKnownGood(String file) {
+            this.lastKnownGood = file;
             return this;
         }
 
@@ -206,36 +385,57 @@ public final class DynamicConfig {
          * Builds the {@link DynamicConfig}.
          */
         public void build() {
-            DynamicConfig.initialize(includeSysEnvProps, useCustomExecutor, runAsDaemon, strategy, pollFrequency,
-                    changeHandlers, sources);
+            DynamicConfig.initialize(this);
         }
     }
 
     /**
-     * Initializes the dynamic config.
+     * Initializes the dynamic config with the parameters of the builder.
      *
-     * @param includeSysEnvProps {@code true} includes system and environment variables to the config otherwise not
-     * @param useCustomExecutor  {@code true} an custom executor service will be used to watch filesystem changes
-     * @param runAsDaemon        {@code true} runs as a daemon process
-     * @param strategy           strategy type WATCH or POLL. Default is WATCH
-     * @param pollFrequency      poll frequency is strategy type is POLL. No effect of this value if strategy is WATCH
-     * @param sources            array of config source file and directory paths
+     * @param builder {@link DynamicConfig.Builder} holding the initialization parameters
      */
-    private static synchronized void initialize(boolean includeSysEnvProps,
-                                                boolean useCustomExecutor,
-                                                boolean runAsDaemon,
-                                                Strategy strategy,
-                                                PollFrequency pollFrequency,
-                                                Set<Class<? extends ChangeHandler>> changeHandlers,
-                                                String... sources) {
+    private static synchronized void initialize(Builder builder) {
         if (dynamicConfig != null) {
             logger.info("Dynamic config is already initialized.");
             return;
         }
 
+        final boolean includeSysEnvProps = builder.includeSysEnvProps;
+        final boolean useCustomExecutor = builder.useCustomExecutor;
+        final boolean runAsDaemon = builder.runAsDaemon;
+        final Strategy strategy = builder.strategy;
+        final PollFrequency pollFrequency = builder.pollFrequency;
+        final String[] sources = builder.sources;
+
+        // Handlers are created once here and reused for every change event
+        final List<HandlerRegistration> changeHandlers = new ArrayList<>(builder.changeHandlers.values());
+        if (builder.discoverHandlers) {
+            for (ConfigChangeHandler handler : ServiceLoader.load(ConfigChangeHandler.class)) {
+                final HandlerRegistration registration = new HandlerRegistration(handler);
+                registration.subscribe();
+                changeHandlers.add(registration);
+            }
+        }
+        for (HandlerRegistration registration : changeHandlers) {
+            registration.instantiate();
+        }
+        if (logger.isLoggable(Level.FINE)) {
+            logger.fine("Change handlers: " + changeHandlers);
+        }
+
         // Start config initialization
         ScheduledExecutorService fswExecutor = null;
+        ScheduledExecutorService reloadExecutor = null;
+        ExecutorService lastKnownGoodExecutor = null;
+        SourceWatcher sourceWatcher = null;
+        SourcePoller sourcePoller = null;
+        final LongAdder suppressedChanges = new LongAdder();
+        HandlerDispatcher handlerDispatcher = null;
+        ConfigMetrics metrics = null;
         try {
+            handlerDispatcher = new HandlerDispatcher(changeHandlers, builder.handlerExecutor,
+                    builder.handlerTimeout.toMillis());
+
             // Add config source files provided to the set to remove duplicates if any.
             final Set<String> configFileSystemSet = new LinkedHashSet<>();
             if (ArrayUtils.isNotEmpty(sources)) {
@@ -249,75 +449,229 @@ public final class DynamicConfig {
             final Strategy finalStrategy = strategy != null ? strategy : Strategy.WATCH;
             final PollFrequency finalPollFrequency = pollFrequency != null ? pollFrequency : PollFrequency.MEDIUM;
 
-            // PollingStrategies::watch creates one executor registered file to be watched for file events.
-            if (useCustomExecutor) {
-                final BasicThreadFactory fileWatcherFactory = new BasicThreadFactory.Builder().namingPattern(
-                        "DynamicConfigFileWatcher" + "-%d").daemon(runAsDaemon).build();
-                fswExecutor =
-                        Executors.newScheduledThreadPool(configFileSystemSet.size(), fileWatcherFactory);
-
-                // Only for daemon mode - auto shutdown hook registration for thread pool for normal exit or
-                // interrupt shutdown like crtl+c
-                if (runAsDaemon) {
-                    final ScheduledExecutorService configWatchExecutor = fswExecutor;
-                    Runtime.getRuntime().addShutdownHook(new Thread(() ->
-                            shutdownExecutorService(configWatchExecutor, 1000, TimeUnit.MILLISECONDS)));
-                }
+            // One thread serves all the sources: the event loop of the source watcher or the polling of the source
+            // poller. It only hands the ticks off, properties and directory sources are read and published on the
+            // reloader thread, which also runs the debounced reloads, and other sources on the changes executor of
+            // Helidon.
+            final BasicThreadFactory fileWatcherFactory = new BasicThreadFactory.Builder().namingPattern(
+                    "DynamicConfigFileWatcher" + "-%d").daemon(!useCustomExecutor || runAsDaemon).build();
+            fswExecutor = Executors.newSingleThreadScheduledExecutor(fileWatcherFactory);
+            reloadExecutor = Executors.newSingleThreadScheduledExecutor(new BasicThreadFactory.Builder()
+                    .namingPattern("DynamicConfigReloader-%d").daemon(true).build());
+            final ScheduledExecutorService sourceReloadExecutor = reloadExecutor;
+
+            // Only for daemon mode - auto shutdown hook registration for thread pool for normal exit or
+            // interrupt shutdown like crtl+c
+            if (useCustomExecutor && runAsDaemon) {
+                final ScheduledExecutorService configWatchExecutor = fswExecutor;
+                Runtime.getRuntime().addShutdownHook(new Thread(() ->
+                        shutdownExecutorService(configWatchExecutor, 1000, TimeUnit.MILLISECONDS)));
             }
 
-            // List of sources to be used to build config and to be watched for change events
-            final List<Supplier<ConfigSource>> configSources = new ArrayList<>();
+            // Sources in priority order to be used to build config and to be watched for change events. Each source is
+            // a separate config and a change re-reads only the changed source.
+            final List<String> layerNames = new ArrayList<>();
+            if (includeSysEnvProps) {
+                layerNames.add("environment variables and system properties");
+            }
+            layerNames.addAll(configFileSystemSet);
+            final Path lastKnownGood = builder.lastKnownGood != null ? Paths.get(builder.lastKnownGood) : null;
+            LastKnownGoodWriter lastKnownGoodWriter = null;
+            if (lastKnownGood != null) {
+                // Lowest priority, empty unless a source could not be read
+                layerNames.add("last known good " + lastKnownGood);
+                // Written off the reloader thread, a slow disk does not delay the next publish
+                lastKnownGoodExecutor = Executors.newSingleThreadExecutor(new BasicThreadFactory.Builder()
+                        .namingPattern("DynamicConfigLastKnownGoodWriter-%d").daemon(true).build());
+                lastKnownGoodWriter = new LastKnownGoodWriter(lastKnownGood, lastKnownGoodExecutor);
+            }
+            // A source missing at runtime keeps its last read entries when a last known good config is configured
+            final boolean keepMissingSources = lastKnownGood != null;
+            final BitSet unreadLayers = new BitSet();
+            ConfigException unreadException = null;
+            final ConfigLayers configLayers = new ConfigLayers(layerNames);
+            final ConfigMetrics configMetrics = new ConfigMetrics(layerNames, suppressedChanges, handlerDispatcher,
+                    builder.keyReadSamplePeriod > 0 ? new KeyReadSampler(builder.keyReadSamplePeriod) : null);
+            metrics = configMetrics;
+            final ReloadPipeline reloadPipeline = new ReloadPipeline(layerNames.size(), configMetrics.staleReads(),
+                    DynamicConfig::reload);
+            int layer = 0;
+            if (includeSysEnvProps) {
+                // Empty sources still add the environment variables and system properties with Helidon's priority
+                configLayers.update(layer++, flatten(Config.builder().sources(Collections.emptyList())
+                        .disableCaching().build()));
+            }
             for (String configFile : configFileSystemSet) {
+                final int sourceLayer = layer++;
                 Path cfgPath = Paths.get(configFile);
-                AbstractConfigSource.Builder<? extends AbstractConfigSource.Builder<?, Path>, Path> configSourceBuilder;
-                if (Files.isDirectory(cfgPath)) {
-                    configSourceBuilder = ConfigSources.directory(configFile);
+                final boolean directory = Files.isDirectory(cfgPath);
+                final boolean properties = !directory && PropertiesSource.isPropertiesFile(cfgPath);
+                final SourceTicks sourceTicks;
+                if (Strategy.WATCH == finalStrategy) {
+                    if (sourceWatcher == null) {
+                        sourceWatcher = new SourceWatcher();
+                    }
+                    sourceTicks = sourceWatcher.register(cfgPath);
                 } else {
-                    configSourceBuilder = ConfigSources.file(configFile);
+                    if (sourcePoller == null) {
+                        sourcePoller = new SourcePoller();
+                    }
+                    sourceTicks = sourcePoller.register(cfgPath);
                 }
-                if (useCustomExecutor) {
-                    if (Strategy.WATCH == finalStrategy) {
-                        configSourceBuilder.pollingStrategy(
-                                watch(cfgPath).executor(fswExecutor));
-                    } else {
-                        configSourceBuilder.pollingStrategy(
-                                regular(ofSeconds(finalPollFrequency.getDuration())).executor(fswExecutor));
+                if (directory) {
+                    // Files of a directory are indexed by name and read on first access
+                    final DirectorySource directorySource = new DirectorySource(cfgPath);
+                    try {
+                        configLayers.update(sourceLayer, directorySource.load());
+                    } catch (ConfigException e) {
+                        if (lastKnownGood == null) {
+                            throw e;
+                        }
+                        unreadLayers.set(sourceLayer);
+                        unreadException = e;
                     }
-
+                    sourceTicks.onTick(sourceReloadExecutor, () -> {
+                        final long sequence = reloadPipeline.nextSequence();
+                        final long start = System.nanoTime();
+                        final Map<String, LazyValue> entries = directorySource.scan();
+                        configMetrics.parseDuration().record(System.nanoTime() - start);
+                        // A deleted file only changes the modification time of the directory
+                        onChange(sourceLayer, sequence, keepMissingSources && directorySource.isUnlisted() ? null
+                                : entries, Math.max(directorySource.modifiedMillis(), lastModifiedMillis(cfgPath)));
+                    });
+                } else if (properties) {
+                    // Parsed in one pass over the mapped file, an unchanged content is not parsed again
+                    final PropertiesSource propertiesSource = new PropertiesSource(cfgPath, suppressedChanges);
+                    try {
+                        configLayers.update(sourceLayer, propertiesSource.load());
+                    } catch (ConfigException e) {
+                        if (lastKnownGood == null) {
+                            throw e;
+                        }
+                        unreadLayers.set(sourceLayer);
+                        unreadException = e;
+                    }
+                    sourceTicks.onTick(sourceReloadExecutor, () -> {
+                        final long sequence = reloadPipeline.nextSequence();
+                        final long start = System.nanoTime();
+                        final Map<String, String> entries = propertiesSource.reload();
+                        if (entries != null) {
+                            configMetrics.parseDuration().record(System.nanoTime() - start);
+                            onChange(sourceLayer, sequence, keepMissingSources && propertiesSource.isMissing() ? null
+                                    : entries, lastModifiedMillis(cfgPath));
+                        }
+                    });
                 } else {
-                    if (Strategy.WATCH == finalStrategy) {
-                        configSourceBuilder.pollingStrategy(PollingStrategies::watch);
-                    } else {
-                        configSourceBuilder.pollingStrategy(regular(ofSeconds(finalPollFrequency.getDuration())));
+                    // An unreadable source is watched as an optional one when a last known good config replaces it
+                    final boolean unreadable = lastKnownGood != null && !Files.isReadable(cfgPath);
+                    final Supplier<ConfigSource> fileSource = unreadable
+                            ? ConfigSources.file(configFile).pollingStrategy(sourceTicks).optional()
+                            : ConfigSources.file(configFile).pollingStrategy(sourceTicks);
+                    final Config config = Config.builder().sources(fileSource)
+                            .disableCaching().disableEnvironmentVariablesSource().disableSystemPropertiesSource()
+                            .build();
+                    configLayers.update(sourceLayer, flatten(config));
+                    if (unreadable) {
+                        unreadLayers.set(sourceLayer);
+                        unreadException = new ConfigException("Cannot load data from mandatory source " + cfgPath +
+                                ". The file can not be read.");
                     }
+                    // Helidon parses the changed source before the callback, only the flattening is measured and the
+                    // callbacks are sequenced in the order they are delivered
+                    config.onChange((Consumer<Config>) changedConfig -> {
+                        final long sequence = reloadPipeline.nextSequence();
+                        final long start = System.nanoTime();
+                        final Map<String, String> entries = flatten(changedConfig);
+                        configMetrics.parseDuration().record(System.nanoTime() - start);
+                        onChange(sourceLayer, sequence, keepMissingSources && !Files.isReadable(cfgPath) ? null
+                                : entries, lastModifiedMillis(cfgPath));
+                    });
                 }
-                configSources.add(configSourceBuilder);
             }
-
-            // Build the config object
-            final Config.Builder configBuilder = Config.builder().sources(configSources).disableCaching();
-            if (!includeSysEnvProps) {
-                configBuilder.disableEnvironmentVariablesSource().disableSystemPropertiesSource();
+            if (!unreadLayers.isEmpty()) {
+                useLastKnownGood(lastKnownGood, configLayers, unreadLayers, unreadException);
             }
-
-            Config config = configBuilder.build();
             if (logger.isLoggable(Level.FINER)) {
-                logger.finer("Dynamic config map at initialization: " + config.asMap());
+                logger.finer("Dynamic config map at initialization: " + configLayers.merge());
             }
 
-            config.onChange(DynamicConfig::onChange);
+            if (sourceWatcher != null) {
+                sourceWatcher.start(fswExecutor);
+            }
+            if (sourcePoller != null) {
+                sourcePoller.start(fswExecutor, TimeUnit.SECONDS.toMillis(finalPollFrequency.getDuration()));
+            }
 
             // Create the final dynamic config object
             dynamicConfig = new DynamicConfig(includeSysEnvProps, useCustomExecutor, runAsDaemon, finalStrategy,
-                    finalPollFrequency, configFileSystemSet, fswExecutor, changeHandlers, config);
+                    finalPollFrequency, configFileSystemSet, fswExecutor, sourceWatcher, sourcePoller,
+                    reloadExecutor, configMetrics, handlerDispatcher,
+                    builder.debounceQuietPeriod, builder.debounceMaxDelay, configLayers, reloadPipeline,
+                    lastKnownGoodExecutor, lastKnownGoodWriter, unreadLayers);
+            configMetrics.register();
+            ConstantFlag.reset(dynamicConfig.snapshot);
+            if (unreadLayers.isEmpty()) {
+                dynamicConfig.saveLastKnownGood(dynamicConfig.snapshot);
+            }
 
         } catch (Exception e) {
             // Any dynamic exception during initialization, reset the values and throw the exception
+            if (sourceWatcher != null) {
+                sourceWatcher.close();
+            }
+            if (sourcePoller != null) {
+                sourcePoller.close();
+            }
             shutdownExecutorService(fswExecutor, 1000, TimeUnit.MILLISECONDS);
+            shutdownExecutorService(reloadExecutor, 1000, TimeUnit.MILLISECONDS);
+            shutdownExecutorService(lastKnownGoodExecutor, 1000, TimeUnit.MILLISECONDS);
+            if (handlerDispatcher != null) {
+                handlerDispatcher.shutdown();
+            }
+            if (metrics != null) {
+                metrics.unregister();
+            }
             throw e;
         }
     }
 
+    /**
+     * Replaces the sources which could not be read by the entries of the last known good config, in the last layer.
+     *
+     * @param lastKnownGood   last known good config file
+     * @param configLayers    {@link ConfigLayers} of the sources
+     * @param unreadLayers    layer indexes of the sources which could not be read
+     * @param unreadException exception of a source which could not be read
+     * @throws ConfigException of the source if the last known good config can not be read either
+     */
+    private static void useLastKnownGood(Path lastKnownGood, ConfigLayers configLayers, BitSet unreadLayers,
+                                         ConfigException unreadException) {
+        final SnapshotFile snapshotFile;
+        try {
+            snapshotFile = SnapshotFile.read(lastKnownGood);
+        } catch (IOException e) {
+            unreadException.addSuppressed(e);
+            throw unreadException;
+        }
+        configLayers.update(configLayers.size() - 1, snapshotFile.entries());
+        final List<String> unreadSources = new ArrayList<>();
+        unreadLayers.stream().forEach(index -> unreadSources.add(configLayers.name(index)));
+        logger.log(Level.WARNING, "Config sources " + unreadSources + " can not be read, the last known good config" +
+                " of generation " + snapshotFile.generation() + " with " + snapshotFile.entries().size() +
+                " entries from " + lastKnownGood + " is used until they are read.", unreadException);
+    }
+
+    /**
+     * Schedules the write of a published snapshot to the last known good config file if one is configured.
+     *
+     * @param published published {@link ConfigSnapshot}
+     */
+    private void saveLastKnownGood(ConfigSnapshot published) {
+        if (lastKnownGoodWriter != null) {
+            lastKnownGoodWriter.save(published);
+        }
+    }
+
     /**
      * Terminates {@link DynamicConfig} and resets initialization parameters only if custom executor was used to watch
      * filesystem changes. After this operation {@link DynamicConfig} can be re-initialized in the same JVM instance.
@@ -325,11 +679,21 @@ public final class DynamicConfig {
     public static synchronized void terminate() {
         checkInitialization();
         if (dynamicConfig.useCustomExecutor) {
-            if (dynamicConfig.config != null) {
-                shutdownExecutorService(dynamicConfig.configWatchExecutor, 1000,
-                        TimeUnit.MILLISECONDS);
+            if (dynamicConfig.sourceWatcher != null) {
+                dynamicConfig.sourceWatcher.close();
             }
+            if (dynamicConfig.sourcePoller != null) {
+                dynamicConfig.sourcePoller.close();
+            }
+            shutdownExecutorService(dynamicConfig.configWatchExecutor, 1000, TimeUnit.MILLISECONDS);
+            shutdownExecutorService(dynamicConfig.reloadExecutor, 1000, TimeUnit.MILLISECONDS);
+            // Lets the scheduled write of the last published snapshot complete
+            shutdownExecutorService(dynamicConfig.lastKnownGoodExecutor, 1000, TimeUnit.MILLISECONDS);
+            dynamicConfig.handlerDispatcher.shutdown();
+            dynamicConfig.metrics.unregister();
+            dynamicConfig.generationWaiters.terminate(new IllegalStateException("Dynamic config was terminated."));
             dynamicConfig = null;
+            ConstantFlag.reset(ConfigSnapshot.EMPTY);
             logger.info("Dynamic config was terminated.");
         } else {
             throw new UnsupportedOperationException("Dynamic config termination is not allowed when" +
@@ -340,64 +704,377 @@ public final class DynamicConfig {
 
     /**
      * Callback method to do action when there is an event triggered such as modify on any registered config source
-     * files. This method must return {@code true} to continue listening the change events.
+     * files. Only the changed source is flattened, the merged config is published by {@link #reload()}, either
+     * immediately or after a burst of change events is over when debouncing is configured. The entries are discarded
+     * when a read of the same source which started later was already received.
      *
-     * @param changedConfig reloaded {@link Config} object
+     * @param layer          layer index of the changed source
+     * @param sequence       sequence number taken from the {@link ReloadPipeline} before the source was read
+     * @param entries        reloaded entries of the source, null if the source is missing and keeps its last read
+     *                       entries
+     * @param modifiedMillis modification time of the source, 0 if unknown
      */
-    private static void onChange(Config changedConfig) {
-        logger.info("Change event received on specified config source files.");
+    private static void onChange(int layer, long sequence, Map<String, ?> entries, long modifiedMillis) {
+        checkInitialization();
+        if (logger.isLoggable(Level.FINE)) {
+            logger.fine("Change event received on config source " + dynamicConfig.configLayers.name(layer) + ".");
+        }
         if (logger.isLoggable(Level.FINER)) {
-            logger.finer("Modified config: " + changedConfig.asMap());
+            logger.finer("Modified config: " + entries);
         }
-        checkInitialization();
+        dynamicConfig.metrics.recordSourceReload(layer, modifiedMillis);
+        if (!dynamicConfig.reloadPipeline.offer(layer, sequence, entries, modifiedMillis)) {
+            return;
+        }
+        if (dynamicConfig.reloadDebouncer.isDebouncing()) {
+            ConfigEvents.watch(dynamicConfig.configLayers.name(layer), ConfigEvents.DEBOUNCED);
+        }
+        dynamicConfig.reloadDebouncer.signal();
+    }
+
+    /**
+     * Overlays the changed layers, publishes the merged config and dispatches the change to the handlers. Change
+     * events coalesced by the debouncer result in one publish of the latest config. Layers equal to the current ones
+     * and a merged config with the same entries as the current generation are dropped before any snapshot or handler
+     * work. A merged config which differs only by the metadata of directory files with unchanged content, e.g. after a
+     * {@code touch}, has no changed keys and is dropped before the swap as well. The callers waiting for the published
+     * generation are released once the sync lock is released. Only run by the single writer of the
+     * {@link ReloadPipeline}, the sync lock is not contended by the reading threads.
+     */
+    private static void reload() {
+        final DynamicConfig current = dynamicConfig;
+        if (current == null) {
+            return;
+        }
+        ConfigSnapshot published = null;
+        boolean persist = false;
         try {
+            // Readers keep using the previous snapshot until the volatile swap below.
             synchronized (syncLock) {
-                dynamicConfig.config = changedConfig;
-                invokeHandlers();
+                final long start = System.nanoTime();
+                final Object event = ConfigEvents.beginReload();
+                final List<String> reloadedLayers = event != null ? new ArrayList<>() : null;
+                boolean pending = false;
+                boolean changed = false;
+                long modifiedMillis = 0;
+                for (int i = 0; i < current.reloadPipeline.layers(); i++) {
+                    final ReloadPipeline.PendingLayer pendingLayer = current.reloadPipeline.take(i);
+                    if (pendingLayer != null) {
+                        final long layerModifiedMillis = pendingLayer.modifiedMillis();
+                        pending = true;
+                        if (pendingLayer.entries() == null) {
+                            current.keepUnreadLayer(i);
+                            continue;
+                        }
+                        changed |= current.configLayers.update(i, pendingLayer.entries());
+                        changed |= current.readUnreadLayer(i, pendingLayer.entries());
+                        if (reloadedLayers != null) {
+                            reloadedLayers.add(current.configLayers.name(i));
+                        }
+                        if (layerModifiedMillis > 0 && (modifiedMillis == 0 || layerModifiedMillis < modifiedMillis)) {
+                            modifiedMillis = layerModifiedMillis;
+                        }
+                    }
+                }
+                if (!pending) {
+                    return;
+                }
+                final Map<String, Object> entries = changed ? current.configLayers.merge() : null;
+                final long fingerprint = changed ? Fingerprint.of(entries) : current.snapshot.fingerprint();
+                if (fingerprint == current.snapshot.fingerprint()) {
+                    current.metrics.suppressedChanges().increment();
+                    logger.fine("Change event suppressed, the reloaded config is equal to the current generation.");
+                    ConfigEvents.commitReload(event, String.valueOf(reloadedLayers),
+                            current.snapshot.getGeneration(), 0, false);
+                    return;
+                }
+                // The counter is only advanced once the generation is published, generations increase by one. The
+                // reload is its only writer while this instance is initialized.
+                final ConfigSnapshot changedSnapshot = new ConfigSnapshot(generationCounter.get() + 1, entries,
+                        fingerprint);
+                final ConfigChange change = ConfigChange.between(current.snapshot, changedSnapshot, modifiedMillis);
+                if (change.isEmpty()) {
+                    current.metrics.suppressedChanges().increment();
+                    logger.fine("Change event suppressed, the reloaded config has no changed keys.");
+                    ConfigEvents.commitReload(event, String.valueOf(reloadedLayers),
+                            current.snapshot.getGeneration(), 0, false);
+                    return;
+                }
+                generationCounter.set(changedSnapshot.getGeneration());
+                current.snapshot = changedSnapshot;
+                published = changedSnapshot;
+                // A snapshot with the entries of an unread source is not a known good config
+                persist = current.unreadLayers.isEmpty();
+                current.metrics.reloadDuration().record(System.nanoTime() - start);
+                if (modifiedMillis > 0) {
+                    current.metrics.publishLatency().recordMillis(System.currentTimeMillis() - modifiedMillis);
+                }
+                logger.info("Config generation " + change.getGeneration() + " published on change event.");
+                if (logger.isLoggable(Level.FINE)) {
+                    logger.fine("Config generation " + change.getGeneration() + " published in " +
+                            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms. " + change);
+                }
+                // Deoptimizes the code compiled with the previous value of a changed constant flag
+                ConstantFlag.changed(change, changedSnapshot);
+                // Handlers run asynchronously, the next reload does not wait for them
+                current.handlerDispatcher.dispatch(change);
+                ConfigEvents.commitReload(event, String.valueOf(reloadedLayers), change.getGeneration(),
+                        change.getChangedKeys().size(), true);
             }
         } catch (Exception e) {
             logger.log(Level.SEVERE, "Config object reload failed on change event", e);
         }
+        if (published != null) {
+            // Completes the waiting futures outside the lock, their dependent stages run on this thread
+            current.generationWaiters.published(published);
+            if (persist) {
+                current.saveLastKnownGood(published);
+            }
+        }
     }
 
     /**
-     * Executes the registered handlers on every change event.
+     * Marks a source missing at runtime as unread, it keeps its last read entries and no snapshot is written to the
+     * last known good config file until it is read again. Only called by the reload under the sync lock.
+     *
+     * @param layer layer index of the missing source
      */
-    private static void invokeHandlers() {
-        for (Class<? extends ChangeHandler> handler : dynamicConfig.changeHandlers) {
-            if (handler != null) {
-                ChangeHandler configHandler;
-                try {
-                    configHandler = handler.newInstance();
-                    configHandler.execute(getConfigAsMap());
-                } catch (InstantiationException | IllegalAccessException e) {
-                    logger.log(Level.SEVERE,
-                            "Handler " + handler.getName() + " instantiation failed. " + e.getMessage(), e);
-                } catch (Exception e) {
-                    logger.log(Level.SEVERE, "Handler " + handler.getName() + " execution failed. " + e.getMessage(),
-                            e);
-                }
-            }
+    private void keepUnreadLayer(int layer) {
+        if (unreadLayers.get(layer)) {
+            return;
+        }
+        unreadLayers.set(layer);
+        lastKnownGoodInUse = true;
+        logger.warning("Config source " + configLayers.name(layer) + " can not be read, its last read entries are" +
+                " kept until it is read again.");
+    }
+
+    /**
+     * Marks a source replaced by the last known good config once it has entries, the last known good config
+     * is dropped when all such sources are read. Only called by the reload under the sync lock.
+     *
+     * @param layer   layer index of the reloaded source
+     * @param entries reloaded entries of the source
+     * @return {@code true} if the last known good config was dropped
+     */
+    private boolean readUnreadLayer(int layer, Map<String, ?> entries) {
+        if (!unreadLayers.get(layer) || entries.isEmpty()) {
+            return false;
         }
+        unreadLayers.clear(layer);
+        logger.info("Config source " + configLayers.name(layer) + " was read.");
+        if (!unreadLayers.isEmpty()) {
+            return false;
+        }
+        lastKnownGoodInUse = false;
+        logger.info("All the config sources were read, the last known good config is not used anymore.");
+        return configLayers.update(configLayers.size() - 1, Collections.emptyMap());
+    }
+
+    /**
+     * Returns the modification time of a config source, symbolic links are followed.
+     *
+     * @param path config source file or directory
+     * @return epoch milliseconds, 0 if the source does not exist
+     */
+    private static long lastModifiedMillis(Path path) {
+        try {
+            return Files.getLastModifiedTime(path).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Flattens a {@link Config} object into its key-value entries.
+     *
+     * @param config {@link Config} object to be flattened
+     * @return {@link Map} of the config entries
+     */
+    private static Map<String, String> flatten(Config config) {
+        return config.asMap().orElse(Collections.emptyMap());
     }
 
     /**
-     * Returns a copy of existing {@link Config} object in a Map
+     * Returns the entries of the current config generation, or of the generation pinned to the current thread, as a
+     * read-only {@link Map} view of its snapshot. Obtaining the view costs O(1), lookups and iteration read the
+     * snapshot without copying and the view keeps showing the same generation after a reload.
      *
-     * @return {@link Map} object of {@link Config}
+     * @return unmodifiable {@link Map} of the config entries
      */
     public static Map<String, String> getConfigAsMap() {
         checkInitialization();
-        if (dynamicConfig.config != null) {
-            final Map<String, String> configMap = new HashMap<>(dynamicConfig.config.asMap().get());
-            if (logger.isLoggable(Level.FINER)) {
-                logger.finer("Dynamic config map: " + configMap);
-            }
-            if (!configMap.isEmpty()) {
-                return Collections.unmodifiableMap(configMap);
-            }
+        final Map<String, String> configMap = dynamicConfig.readSnapshot().asMap();
+        if (logger.isLoggable(Level.FINER)) {
+            logger.finer("Dynamic config map: " + configMap);
         }
-        return Collections.emptyMap();
+        return configMap;
+    }
+
+    /**
+     * Creates a reusable typed handle of the specified key. The handle caches the converted value and converts it again
+     * only when a reload has published a new config generation, so reading it in a hot path does not involve a lookup
+     * or a parse. The default value is returned when the key is not found, its value can not be converted or the
+     * {@link DynamicConfig} is not initialized.
+     *
+     * @param key        key name in the config
+     * @param valType    the type of value
+     * @param defaultVal default value of the key
+     * @param <T>        class type
+     * @return {@link ConfigKey} handle of the key
+     */
+    public static <T> ConfigKey<T> key(final String key, Class<T> valType, T defaultVal) {
+        return new ConfigKey<>(key, valType, defaultVal);
+    }
+
+    /**
+     * Creates a reusable typed handle of the specified key which returns null when the key is not found.
+     *
+     * @param key     key name in the config
+     * @param valType the type of value
+     * @param <T>     class type
+     * @return {@link ConfigKey} handle of the key
+     * @see #key(String, Class, Object)
+     */
+    public static <T> ConfigKey<T> key(final String key, Class<T> valType) {
+        return new ConfigKey<>(key, valType, null);
+    }
+
+    /**
+     * Returns a {@link ConstantFlag} of the specified boolean key which the JIT compiler can fold as a constant, false
+     * if the key is not found. See {@link #constantFlag(String, boolean)}.
+     *
+     * @param key key name in the config
+     * @return {@link ConstantFlag} of the key
+     */
+    public static ConstantFlag constantFlag(final String key) {
+        return constantFlag(key, false);
+    }
+
+    /**
+     * Returns a {@link ConstantFlag} of the specified boolean key. Its value is the target of a call site replaced only
+     * when a reload changes the key, the JIT compiler inlines it as a constant into the code reading the handle of the
+     * flag and deoptimizes that code on a change. Flags of the same key and default value are one shared instance.
+     * A value other than {@code true} is {@code false}, the default value is returned when the key is not found or the
+     * {@link DynamicConfig} is not initialized.
+     *
+     * @param key        key name in the config
+     * @param defaultVal default value of the key
+     * @return {@link ConstantFlag} of the key
+     */
+    public static ConstantFlag constantFlag(final String key, boolean defaultVal) {
+        return ConstantFlag.of(key, defaultVal);
+    }
+
+    /**
+     * Returns the current {@link ConfigSnapshot}, an empty snapshot if {@link DynamicConfig} is not initialized.
+     *
+     * @return current {@link ConfigSnapshot}
+     */
+    static ConfigSnapshot currentSnapshot() {
+        final ConfigSnapshot pinned = SnapshotPin.pinned();
+        if (pinned != null) {
+            return pinned;
+        }
+        return unpinnedSnapshot();
+    }
+
+    /**
+     * Returns the current {@link ConfigSnapshot} ignoring the pin of the current thread, an empty snapshot if
+     * {@link DynamicConfig} is not initialized.
+     *
+     * @return current {@link ConfigSnapshot}
+     */
+    static ConfigSnapshot unpinnedSnapshot() {
+        final DynamicConfig current = dynamicConfig;
+        return current != null ? current.snapshot : ConfigSnapshot.EMPTY;
+    }
+
+    /**
+     * Returns the current generation of the config as an immutable {@link ConfigSnapshot}, the pinned one if the
+     * current thread has a {@link SnapshotPin}. Obtaining it costs one volatile read and no allocation, all the reads
+     * of the returned snapshot see the same generation and do not read the current config again.
+     *
+     * @return current {@link ConfigSnapshot}
+     * @throws IllegalStateException if {@link DynamicConfig} is not initialized
+     */
+    public static ConfigSnapshot snapshot() {
+        checkInitialization();
+        return currentSnapshot();
+    }
+
+    /**
+     * Blocks until a config generation equal to or newer than the specified one is published and returns it. Returns
+     * immediately when the current generation is already as new. Generations increase by one with every published
+     * config, waiting for {@code snapshot().getGeneration() + 1} before changing a config source waits for the reload
+     * of that change instead of sleeping for a guessed time.
+     *
+     * @param generation config generation to wait for
+     * @param timeout    maximum time to wait
+     * @return {@link ConfigSnapshot} of the specified generation or a newer one
+     * @throws IllegalStateException if {@link DynamicConfig} is not initialized or is terminated while waiting
+     * @throws InterruptedException  if the current thread is interrupted while waiting
+     * @throws TimeoutException      if no such generation is published within the timeout
+     */
+    public static ConfigSnapshot awaitGeneration(long generation, Duration timeout) throws InterruptedException,
+            TimeoutException {
+        checkInitialization();
+        final CompletableFuture<ConfigSnapshot> future = dynamicConfig.awaitPublished(generation);
+        try {
+            return future.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause().getMessage(), e.getCause());
+        } catch (TimeoutException | InterruptedException e) {
+            future.cancel(false);
+            throw e;
+        }
+    }
+
+    /**
+     * Returns a future completed with the next config generation published after this call. Stages chained to it
+     * without an executor run on the thread publishing the config and delay the next reload, the async variants
+     * should be used for anything slow. The future fails with an {@link IllegalStateException} if
+     * {@link DynamicConfig} is terminated before a change.
+     *
+     * @return {@link CompletableFuture} of the next {@link ConfigSnapshot}
+     * @throws IllegalStateException if {@link DynamicConfig} is not initialized
+     */
+    public static CompletableFuture<ConfigSnapshot> nextChange() {
+        checkInitialization();
+        final DynamicConfig current = dynamicConfig;
+        return current.awaitPublished(current.snapshot.getGeneration() + 1);
+    }
+
+    /**
+     * Returns a future completed when this instance publishes the specified generation or a newer one.
+     *
+     * @param generation config generation to wait for
+     * @return {@link CompletableFuture} of the {@link ConfigSnapshot}
+     */
+    private CompletableFuture<ConfigSnapshot> awaitPublished(long generation) {
+        return generationWaiters.await(generation, () -> snapshot);
+    }
+
+    /**
+     * Pins the current generation of the config to the current thread until the returned pin is closed, the getters
+     * of {@link DynamicConfig} and {@link ConfigKey} handles then read the pinned generation on this thread. Meant
+     * for try-with-resources around the handling of one request so that all the keys it reads are consistent.
+     *
+     * @return {@link SnapshotPin} to be closed by the current thread
+     * @throws IllegalStateException if {@link DynamicConfig} is not initialized
+     */
+    public static SnapshotPin pin() {
+        return new SnapshotPin(snapshot());
+    }
+
+    /**
+     * Returns the snapshot the getters read: the one pinned to the current thread, otherwise the current one.
+     *
+     * @return {@link ConfigSnapshot} to read
+     */
+    private ConfigSnapshot readSnapshot() {
+        final ConfigSnapshot pinned = SnapshotPin.pinned();
+        return pinned != null ? pinned : snapshot;
     }
 
     /**
@@ -456,6 +1133,86 @@ public final class DynamicConfig {
         return dynamicConfig.getProperty(key, Long.class);
     }
 
+    /**
+     * Returns int value of the specified key, returns default value if the key not found, the value is not a valid
+     * int or {@link DynamicConfig} is not initialized. The value is parsed once per reload, this method does not
+     * allocate.
+     *
+     * @param key        key name in the config
+     * @param defaultVal default value to be returned if the key not found or key's value is not an int
+     * @return value or default value for the specified key
+     */
+    public static int getInt(final String key, int defaultVal) {
+        final DynamicConfig current = dynamicConfig;
+        if (current == null) {
+            return defaultVal;
+        }
+        final ConfigSnapshot configSnapshot = current.readSnapshot();
+        final int value = configSnapshot.getInt(key, defaultVal);
+        current.recordPrimitiveRead(configSnapshot, key, value == defaultVal);
+        return value;
+    }
+
+    /**
+     * Returns long value of the specified key, returns default value if the key not found, the value is not a valid
+     * long or {@link DynamicConfig} is not initialized. The value is parsed once per reload, this method does not
+     * allocate.
+     *
+     * @param key        key name in the config
+     * @param defaultVal default value to be returned if the key not found or key's value is not a long
+     * @return value or default value for the specified key
+     */
+    public static long getLong(final String key, long defaultVal) {
+        final DynamicConfig current = dynamicConfig;
+        if (current == null) {
+            return defaultVal;
+        }
+        final ConfigSnapshot configSnapshot = current.readSnapshot();
+        final long value = configSnapshot.getLong(key, defaultVal);
+        current.recordPrimitiveRead(configSnapshot, key, value == defaultVal);
+        return value;
+    }
+
+    /**
+     * Returns double value of the specified key, returns default value if the key not found, the value is not a valid
+     * double or {@link DynamicConfig} is not initialized. The value is parsed once per reload, this method does not
+     * allocate.
+     *
+     * @param key        key name in the config
+     * @param defaultVal default value to be returned if the key not found or key's value is not a double
+     * @return value or default value for the specified key
+     */
+    public static double getDouble(final String key, double defaultVal) {
+        final DynamicConfig current = dynamicConfig;
+        if (current == null) {
+            return defaultVal;
+        }
+        final ConfigSnapshot configSnapshot = current.readSnapshot();
+        final double value = configSnapshot.getDouble(key, defaultVal);
+        current.recordPrimitiveRead(configSnapshot, key, value == defaultVal);
+        return value;
+    }
+
+    /**
+     * Returns boolean value of the specified key, returns default value if the key not found or {@link DynamicConfig}
+     * is not initialized. Same as {@link #getBooleanValue(String)} any value other than {@code true} (ignoring case)
+     * is {@code false}. This method does not allocate.
+     *
+     * @param key        key name in the config
+     * @param defaultVal default value to be returned if the key not found
+     * @return value or default value for the specified key
+     */
+    public static boolean getBoolean(final String key, boolean defaultVal) {
+        final DynamicConfig current = dynamicConfig;
+        if (current == null) {
+            return defaultVal;
+        }
+        final ConfigSnapshot configSnapshot = current.readSnapshot();
+        final boolean value = configSnapshot.getBoolean(key, defaultVal);
+        current.recordPrimitiveRead(configSnapshot, key, value == defaultVal);
+        return value;
+    }
+
     /**
      * Returns value of the specified key, returns default value if the key not found or key's value is null. If the
      * value is available in config it casts the value to type of default value before returning
@@ -516,11 +1273,10 @@ public final class DynamicConfig {
     private <T> T getProperty(final String key, Class<T> type) {
 
         T value = null;
-        if (StringUtils.isNotBlank(key)) {
-            Config propConfig;
-            if (config != null && (propConfig = config.get(key)).exists()) {
-                value = propConfig.as(type).isPresent() ? propConfig.as(type).get() : null;
-            }
+        final String rawValue = readSnapshot().get(key);
+        metrics.recordRead(key, rawValue != null);
+        if (rawValue != null) {
+            value = ValueParser.parse(key, rawValue, type);
         }
         if (logger.isLoggable(Level.FINER)) {
             logger.finer("Config property key: " + key + ", value: " + value);
@@ -528,6 +1284,18 @@ public final class DynamicConfig {
         return value;
     }
 
+    /**
+     * Counts a read of a primitive getter. Whether the key is missing is only looked up when the default value was
+     * returned, a hit on a value different from the default costs a striped counter increment and the sampling.
+     *
+     * @param configSnapshot snapshot the value was read from
+     * @param key            key name in the config
+     * @param isDefault      {@code true} if the getter returned the default value
+     */
+    private void recordPrimitiveRead(ConfigSnapshot configSnapshot, String key, boolean isDefault) {
+        metrics.recordRead(key, !isDefault || configSnapshot.getRaw(key) != null);
+    }
+
     /**
      * Checks if {@link DynamicConfig} is initialized. If not it throws {@link IllegalStateException}
      */
@@ -537,6 +1305,120 @@ public final class DynamicConfig {
         }
     }
 
+    /**
+     * Returns the number of source polls which did not read the source as its modification time, size, file key and
+     * symbolic link target did not change. Always 0 with the {@link Strategy#WATCH} strategy or if the config is not
+     * initialized.
+     *
+     * @return number of skipped source reads
+     */
+    public static long getSkippedSourceReads() {
+        final DynamicConfig current = dynamicConfig;
+        return current != null && current.sourcePoller != null ? current.sourcePoller.getSkippedReads() : 0;
+    }
+
+    /**
+     * Returns whether the last known good config replaces config sources which could not be read when
+     * {@link DynamicConfig} was built, or sources missing at runtime keep their last read entries. False once all those
+     * sources were read, and if no last known good config file is configured.
+     *
+     * @return {@code true} if the last known good config is in use
+     * @throws IllegalStateException if {@link DynamicConfig} is not initialized
+     */
+    public static boolean isLastKnownGoodInUse() {
+        checkInitialization();
+        return dynamicConfig.lastKnownGoodInUse;
+    }
+
+    /**
+     * Returns the number of change events dropped without a reload as the content of the changed source, or the
+     * merged config, was equal to the current generation. Always 0 if the config is not initialized.
+     *
+     * @return number of suppressed change events
+     */
+    public static long getSuppressedChanges() {
+        final DynamicConfig current = dynamicConfig;
+        return current != null ? current.metrics.getSuppressedChangeCount() : 0;
+    }
+
+    /**
+     * Returns the latency from the modification of a config source file to the publish of the config generation
+     * reflecting it, which includes the detection of the change by the watch or poll strategy, the debounce and the
+     * reload. Measured against the modification time of the file, a source on a file system with a skewed clock is
+     * measured off by the skew. Empty if the config is not initialized.
+     *
+     * @return {@link LatencyHistogram} of the config generations published on change events
+     */
+    public static LatencyHistogram getPublishLatency() {
+        final DynamicConfig current = dynamicConfig;
+        return current != null ? current.metrics.publishLatency() : EMPTY_HISTOGRAM;
+    }
+
+    /**
+     * Returns the latency from the modification of a config source file to the completion of each change handler
+     * invocation on the resulting change. Empty if the config is not initialized.
+     *
+     * @return {@link LatencyHistogram} of the change handler invocations
+     * @see #getPublishLatency()
+     */
+    public static LatencyHistogram getHandlerCompletionLatency() {
+        final DynamicConfig current = dynamicConfig;
+        return current != null ? current.handlerDispatcher.completionLatency() : EMPTY_HISTOGRAM;
+    }
+
+    /**
+     * Returns the most read keys with their estimated number of reads through the getters since initialization, most
+     * read first. Requires {@link Builder#sampleKeyReads(int)}, keys read often deserve a typed {@link ConfigKey}
+     * handle.
+     *
+     * @param limit maximum number of keys
+     * @return estimated read counts by key
+     * @throws IllegalStateException if {@link DynamicConfig} is not initialized or reads are not sampled
+     */
+    public static Map<String, Long> getHotKeys(int limit) {
+        return keyReadSampler().hotKeys(limit);
+    }
+
+    /**
+     * Returns the keys of the current config which were not read through the getters since initialization. Requires
+     * {@link Builder#sampleKeyReads(int)}, with a sample period above 1 a key read only a few times may be reported as
+     * well. Keys only read through {@link ConfigKey} handles are reported too. Unknown once more distinct keys were
+     * read than the sampler tracks, which only happens with configs of more than 10,000 keys.
+     *
+     * @return unread keys in natural order
+     * @throws IllegalStateException if {@link DynamicConfig} is not initialized, reads are not sampled or the unread
+     *                               keys are unknown
+     */
+    public static Set<String> getUnreadKeys() {
+        final KeyReadSampler keyReadSampler = keyReadSampler();
+        if (keyReadSampler.dropped() > 0) {
+            throw new IllegalStateException("More than " + KeyReadSampler.MAX_KEYS + " distinct keys were read," +
+                    " the unread keys are unknown.");
+        }
+        return keyReadSampler.unreadKeys(currentSnapshot());
+    }
+
+    private static KeyReadSampler keyReadSampler() {
+        checkInitialization();
+        final KeyReadSampler keyReadSampler = dynamicConfig.metrics.keyReadSampler();
+        if (keyReadSampler == null) {
+            throw new IllegalStateException("Key reads are not sampled, see Builder.sampleKeyReads(int).");
+        }
+        return keyReadSampler;
+    }
+
+    /**
+     * Returns the runtime metrics of the reloads, reads and change handlers, the same attributes the MBean registered
+     * as {@value DynamicConfigMXBean#OBJECT_NAME} exposes over JMX.
+     *
+     * @return {@link DynamicConfigMXBean} of the current initialization
+     * @throws IllegalStateException if {@link DynamicConfig} is not initialized
+     */
+    public static DynamicConfigMXBean getMetrics() {
+        checkInitialization();
+        return dynamicConfig.metrics;
+    }
+
     /**
      * Returns {@link DynamicConfig} initialization details if initialization was successful
      *
@@ -582,4 +1464,93 @@ public final class DynamicConfig {
             logger.info(executorService.toString());
         }
     }
+
+    /**
+     * Entry points of the benchmarks module and the tests into the reload path, the change dispatch and the properties
+     * parser, measured without file system events. Package-private, the benchmarks share the package of the config.
+     */
+    static final class TestHook {
+
+        private TestHook() {
+        }
+
+        /**
+         * Signals a change of a source with its reloaded entries, as the change event of the source does once it is
+         * read. Unless a debounce is configured the new generation is published before this method returns.
+         *
+         * @param layer   layer index of the source: the sources in the order passed to the builder, after the
+         *                environment variables and system properties layer if included
+         * @param entries reloaded entries of the source
+         * @return generation of the current config
+         * @throws IllegalStateException if {@link DynamicConfig} is not initialized
+         */
+        static long sourceChanged(int layer, Map<String, String> entries) {
+            checkInitialization();
+            final DynamicConfig current = dynamicConfig;
+            sourceChanged(layer, current.reloadPipeline.nextSequence(), entries);
+            return current.snapshot.getGeneration();
+        }
+
+        /**
+         * Signals a change of a source read with the specified sequence number, discarded as stale if a read of the
+         * source with a higher sequence number was already received.
+         *
+         * @param layer    layer index of the source
+         * @param sequence sequence number of the read
+         * @param entries  reloaded entries of the source
+         */
+        static void sourceChanged(int layer, long sequence, Map<String, String> entries) {
+            onChange(layer, sequence, entries, 0);
+        }
+
+        /**
+         * Returns the reader of a {@code .properties} file source, each call reads and parses the whole file.
+         *
+         * @param file properties file
+         * @return reader of the entries of the file
+         */
+        static Supplier<Map<String, String>> propertiesReader(Path file) {
+            return new PropertiesSource(file, new LongAdder())::load;
+        }
+
+        /**
+         * Returns the parser of a {@code .properties} file source applied to content in memory.
+         *
+         * @param file properties file, only used for the messages
+         * @return parser of UTF-8 encoded properties
+         */
+        static Function<ByteBuffer, Map<String, String>> propertiesParser(Path file) {
+            return new PropertiesSource(file, new LongAdder())::parse;
+        }
+
+        /**
+         * Returns the dispatch of a change to handlers, each subscribed to its keys or key prefixes, or to every change
+         * when it has none.
+         *
+         * @param handlers {@link ConfigChangeHandler} instances with their subscribed keys, in iteration order
+         * @param executor executor the handlers run on
+         * @return dispatch of a change, it returns once the change is enqueued for the handlers
+         */
+        static Consumer<ConfigChange> handlerDispatch(Map<ConfigChangeHandler, String[]> handlers,
+                                                             ExecutorService executor) {
+            final List<HandlerRegistration> registrations = new ArrayList<>();
+            handlers.forEach((handler, keys) -> {
+                final HandlerRegistration registration = new HandlerRegistration(handler);
+                registration.subscribe(keys);
+                registrations.add(registration);
+            });
+            return new HandlerDispatcher(registrations, executor, 0)::dispatch;
+        }
+
+        /**
+         * Computes the change between two configs, as a reload does.
+         *
+         * @param previous entries before the change
+         * @param current  entries after the change
+         * @return {@link ConfigChange} between the entries
+         */
+        static ConfigChange change(Map<String, String> previous, Map<String, String> current) {
+            return ConfigChange.between(new ConfigSnapshot(1L, previous), new ConfigSnapshot(2L, current));
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,175 @@
+package com.routp.container.config;
+
+import java.util.Map;
+
+/**
+ * Management interface of the {@link DynamicConfig} runtime metrics, registered with the platform MBean server under
+ * {@value #OBJECT_NAME} while the config is initialized. Durations are in microseconds unless the attribute name says
+ * otherwise and every percentile is reported with the precision of a {@link LatencyHistogram}. Counters are reset
+ * when the config is terminated and initialized again.
+ *
+ * @author prarout
+ * @since 1.0.0
+ */
+public interface DynamicConfigMXBean {
+
+    /**
+     * Object name of the registered MBean.
+     */
+    String OBJECT_NAME = "com.routp.container.config:type=DynamicConfig";
+
+    /**
+     * Returns the generation number of the current config, increases with every published reload.
+     *
+     * @return current generation
+     */
+    long getGeneration();
+
+    /**
+     * Returns the number of keys of the current config.
+     *
+     * @return number of keys
+     */
+    int getKeyCount();
+
+    /**
+     * Returns the estimated heap size of the current config snapshot: its hash table and the key and value strings.
+     *
+     * @return estimated size in bytes
+     */
+    long getSnapshotBytes();
+
+    /**
+     * Returns the number of config generations published on change events.
+     *
+     * @return number of reloads
+     */
+    long getReloadCount();
+
+    /**
+     * Returns the number of change events dropped as the content of the source or the merged config did not change.
+     *
+     * @return number of suppressed change events
+     */
+    long getSuppressedChangeCount();
+
+    /**
+     * Returns the number of source reads discarded as stale because a read of the same source which started later was
+     * received first.
+     *
+     * @return number of stale source reads
+     */
+    long getStaleReadCount();
+
+    /**
+     * Returns the median duration of a reload from the merge of the changed layers to the publish of the generation.
+     *
+     * @return p50 reload duration in microseconds
+     */
+    long getReloadDurationP50Micros();
+
+    /**
+     * Returns the 99th percentile duration of a reload.
+     *
+     * @return p99 reload duration in microseconds
+     * @see #getReloadDurationP50Micros()
+     */
+    long getReloadDurationP99Micros();
+
+    /**
+     * Returns the median duration of reading and parsing one changed source.
+     *
+     * @return p50 parse duration in microseconds
+     */
+    long getParseDurationP50Micros();
+
+    /**
+     * Returns the 99th percentile duration of reading and parsing one changed source.
+     *
+     * @return p99 parse duration in microseconds
+     */
+    long getParseDurationP99Micros();
+
+    /**
+     * Returns the 99th percentile latency from the modification of a source to the publish of the generation.
+     *
+     * @return p99 publish latency in milliseconds
+     * @see DynamicConfig#getPublishLatency()
+     */
+    long getPublishLatencyP99Millis();
+
+    /**
+     * Returns the modification time of each source at its last change event, keyed by the path of the source file or
+     * directory. The environment variables and system properties are never reloaded and stay at 0.
+     *
+     * @return epoch milliseconds, 0 if no change event was received or the time is unknown
+     */
+    Map<String, Long> getSourceLastModifiedMillis();
+
+    /**
+     * Returns the time each source was last read on a change event, keyed by the path of the source file or
+     * directory.
+     *
+     * @return epoch milliseconds, 0 if no change event was received
+     */
+    Map<String, Long> getSourceLastReloadMillis();
+
+    /**
+     * Returns the number of invocations of each change handler, keyed by the handler class name.
+     *
+     * @return invocations including the failed ones
+     */
+    Map<String, Long> getHandlerInvocations();
+
+    /**
+     * Returns the number of invocations of each change handler which threw an exception.
+     *
+     * @return failed invocations
+     */
+    Map<String, Long> getHandlerFailures();
+
+    /**
+     * Returns the median invocation duration of each change handler.
+     *
+     * @return p50 invocation duration in microseconds
+     */
+    Map<String, Long> getHandlerDurationP50Micros();
+
+    /**
+     * Returns the 99th percentile invocation duration of each change handler.
+     *
+     * @return p99 invocation duration in microseconds
+     */
+    Map<String, Long> getHandlerDurationP99Micros();
+
+    /**
+     * Returns the number of reads through the getters of {@link DynamicConfig}. {@link ConfigKey} handles are not
+     * counted.
+     *
+     * @return number of reads
+     */
+    long getReadCount();
+
+    /**
+     * Returns the number of reads through the getters of {@link DynamicConfig} of a key which is not in the config.
+     *
+     * @return number of reads of a missing key
+     */
+    long getReadMissCount();
+
+    /**
+     * Returns the 20 most read keys with their estimated read counts, most read first. Empty unless the reads are
+     * sampled, see {@link DynamicConfig.Builder#sampleKeyReads(int)}.
+     *
+     * @return estimated read counts by key
+     */
+    Map<String, Long> getHotKeys();
+
+    /**
+     * Returns the number of keys of the current config never read through the getters since initialization.
+     *
+     * @return number of unread keys, -1 unless the reads are sampled or if more keys were read than can be tracked
+     * @see DynamicConfig#getUnreadKeys()
+     */
+    int getUnreadKeyCount();
+}
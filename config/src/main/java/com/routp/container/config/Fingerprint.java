@@ -0,0 +1,146 @@
+package com.routp.container.config;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Map;
+
+/**
+ * Fast non-cryptographic 64-bit fingerprints of source contents and config entries, used to recognize a reload which
+ * does not change anything. The mixing follows xxHash64: input is consumed eight bytes at a time and the result is
+ * avalanched, a collision of two different contents is as likely as 1 in 2^64.
+ *
+ * @author prarout
+ * @since 1.0.0
+ */
+final class Fingerprint {
+
+    private static final long PRIME1 = 0x9E3779B185EBCA87L;
+    private static final long PRIME2 = 0xC2B2AE3D27D4EB4FL;
+    private static final long PRIME3 = 0x165667B19E3779F9L;
+    private static final long PRIME4 = 0x85EBCA77C2B2AE63L;
+    private static final long PRIME5 = 0x27D4EB2F165667C5L;
+
+    private Fingerprint() {
+    }
+
+    /**
+     * Returns the fingerprint of a byte range.
+     *
+     * @param data   bytes
+     * @param offset offset of the first byte
+     * @param length number of bytes
+     * @return 64-bit fingerprint
+     */
+    static long of(byte[] data, int offset, int length) {
+        final int end = offset + length;
+        long hash = PRIME5 + length;
+        int i = offset;
+        for (; i + 8 <= end; i += 8) {
+            hash = Long.rotateLeft(hash ^ round(getLong(data, i)), 27) * PRIME1 + PRIME4;
+        }
+        for (; i < end; i++) {
+            hash = Long.rotateLeft(hash ^ (data[i] & 0xFFL) * PRIME5, 11) * PRIME1;
+        }
+        return avalanche(hash);
+    }
+
+    /**
+     * Returns the fingerprint of the remaining bytes of a buffer without copying them, equal to the fingerprint of
+     * the same bytes in an array. The position of the buffer is not changed.
+     *
+     * @param data heap, direct or mapped buffer
+     * @return 64-bit fingerprint
+     */
+    static long of(ByteBuffer data) {
+        final ByteBuffer littleEndian = data.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        final int end = littleEndian.limit();
+        long hash = PRIME5 + littleEndian.remaining();
+        int i = littleEndian.position();
+        for (; i + 8 <= end; i += 8) {
+            hash = Long.rotateLeft(hash ^ round(littleEndian.getLong(i)), 27) * PRIME1 + PRIME4;
+        }
+        for (; i < end; i++) {
+            hash = Long.rotateLeft(hash ^ (littleEndian.get(i) & 0xFFL) * PRIME5, 11) * PRIME1;
+        }
+        return avalanche(hash);
+    }
+
+    /**
+     * Returns the fingerprint of the characters of a string, no encoding is involved.
+     *
+     * @param value string
+     * @return 64-bit fingerprint
+     */
+    static long of(String value) {
+        final int length = value.length();
+        long hash = PRIME5 + length;
+        int i = 0;
+        for (; i + 4 <= length; i += 4) {
+            final long chars = (long) value.charAt(i) | (long) value.charAt(i + 1) << 16
+                    | (long) value.charAt(i + 2) << 32 | (long) value.charAt(i + 3) << 48;
+            hash = Long.rotateLeft(hash ^ round(chars), 27) * PRIME1 + PRIME4;
+        }
+        for (; i < length; i++) {
+            hash = Long.rotateLeft(hash ^ value.charAt(i) * PRIME5, 11) * PRIME1;
+        }
+        return avalanche(hash);
+    }
+
+    /**
+     * Returns the fingerprint of the entries of a map independently of the iteration order. Entries with a
+     * {@code null} key or value are ignored, a {@link LazyValue} contributes the fingerprint of its file metadata.
+     *
+     * @param entries config entries
+     * @return 64-bit fingerprint
+     */
+    static long of(Map<String, ?> entries) {
+        long hash = 0;
+        for (Map.Entry<String, ?> entry : entries.entrySet()) {
+            if (entry.getKey() != null && entry.getValue() != null) {
+                hash += ofEntry(entry.getKey(), entry.getValue());
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * Returns the fingerprint of one config entry, fingerprints of the entries of a config are summed up.
+     *
+     * @param key   key name
+     * @param value raw {@link String} or {@link LazyValue}
+     * @return 64-bit fingerprint
+     */
+    static long ofEntry(String key, Object value) {
+        final long valueHash = value instanceof LazyValue ? ((LazyValue) value).fingerprint() : of((String) value);
+        return avalanche(of(key) * PRIME3 + valueHash);
+    }
+
+    /**
+     * Combines a fingerprint into an ordered sequence of fingerprints.
+     *
+     * @param hash  fingerprint of the sequence so far
+     * @param value fingerprint to append
+     * @return fingerprint of the sequence
+     */
+    static long combine(long hash, long value) {
+        return Long.rotateLeft(hash ^ round(value), 27) * PRIME1 + PRIME4;
+    }
+
+    private static long round(long input) {
+        return Long.rotateLeft(input * PRIME2, 31) * PRIME1;
+    }
+
+    private static long avalanche(long hash) {
+        hash ^= hash >>> 33;
+        hash *= PRIME2;
+        hash ^= hash >>> 29;
+        hash *= PRIME3;
+        return hash ^ hash >>> 32;
+    }
+
+    private static long getLong(byte[] data, int i) {
+        return (data[i] & 0xFFL) | (data[i + 1] & 0xFFL) << 8 | (data[i + 2] & 0xFFL) << 16
+                | (data[i + 3] & 0xFFL) << 24 | (data[i + 4] & 0xFFL) << 32 | (data[i + 5] & 0xFFL) << 40
+                | (data[i + 6] & 0xFFL) << 48 | (data[i + 7] & 0xFFL) << 56;
+    }
+}
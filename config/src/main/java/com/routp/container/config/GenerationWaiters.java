@@ -0,0 +1,82 @@
+package com.routp.container.config;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Futures of the callers waiting for a config generation to be published, ordered by generation. The callers waiting
+ * for the same generation share one future, a publish completes the futures of all the generations up to the
+ * published one in ascending order with the published {@link ConfigSnapshot}. Registering a waiter and publishing a
+ * generation do not lock each other: a waiter checks the current snapshot after it is registered, so a publish
+ * racing with the registration is never missed.
+ *
+ * @author prarout
+ * @since 1.0.0
+ */
+final class GenerationWaiters {
+
+    private final ConcurrentNavigableMap<Long, CompletableFuture<ConfigSnapshot>> waiters =
+            new ConcurrentSkipListMap<>();
+
+    /**
+     * Returns a future completed with the first published snapshot whose generation is at least the specified one.
+     * Every caller gets its own dependent future, cancelling it does not affect the other callers.
+     *
+     * @param generation generation to wait for
+     * @param current    supplier of the current snapshot
+     * @return {@link CompletableFuture} of the {@link ConfigSnapshot}
+     */
+    CompletableFuture<ConfigSnapshot> await(long generation, Supplier<ConfigSnapshot> current) {
+        final ConfigSnapshot snapshot = current.get();
+        if (snapshot.getGeneration() >= generation) {
+            return CompletableFuture.completedFuture(snapshot);
+        }
+        final CompletableFuture<ConfigSnapshot> future = waiters.computeIfAbsent(generation,
+                key -> new CompletableFuture<>());
+        // A publish between the first check and the registration did not see this waiter
+        final ConfigSnapshot published = current.get();
+        if (published.getGeneration() >= generation) {
+            published(published);
+        }
+        return future.thenApply(Function.identity());
+    }
+
+    /**
+     * Completes the waiters of all the generations up to the published one.
+     *
+     * @param snapshot published {@link ConfigSnapshot}
+     */
+    void published(ConfigSnapshot snapshot) {
+        Map.Entry<Long, CompletableFuture<ConfigSnapshot>> entry;
+        while ((entry = waiters.firstEntry()) != null && entry.getKey() <= snapshot.getGeneration()) {
+            if (waiters.remove(entry.getKey(), entry.getValue())) {
+                entry.getValue().complete(snapshot);
+            }
+        }
+    }
+
+    /**
+     * Completes all the waiters exceptionally, no further generation is published.
+     *
+     * @param cause exception the waiters fail with
+     */
+    void terminate(Throwable cause) {
+        Map.Entry<Long, CompletableFuture<ConfigSnapshot>> entry;
+        while ((entry = waiters.pollFirstEntry()) != null) {
+            entry.getValue().completeExceptionally(cause);
+        }
+    }
+
+    /**
+     * Returns the number of generations waited for.
+     *
+     * @return number of pending generations
+     */
+    int pending() {
+        return waiters.size();
+    }
+}
@@ -0,0 +1,305 @@
+package com.routp.container.config;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+
+/**
+ * Dispatches a {@link ConfigChange} to the subscribed handlers asynchronously. Handlers run concurrently with each
+ * other on the handler executor while every handler receives the changes one at a time and in generation order, so a
+ * handler never runs concurrently with itself. A handler running longer than the timeout is interrupted and reported,
+ * a slow or failing handler delays only its own later changes. {@link #dispatch(ConfigChange)} only enqueues the
+ * change and never waits for a handler. At most {@link #MAX_PENDING_CHANGES} changes wait per handler, a change
+ * enqueued to a full queue is merged into the last one so that a handler falling behind receives the net change of
+ * the generations it missed instead of holding every snapshot in between.
+ *
+ * @author prarout
+ * @since 1.0.0
+ */
+final class HandlerDispatcher {
+    private static final Logger logger = Logger.getLogger(HandlerDispatcher.class.getName());
+
+    static final int MAX_PENDING_CHANGES = 32;
+
+    private final List<HandlerTask> tasks = new ArrayList<>();
+    private final SubscriptionIndex subscriptionIndex = new SubscriptionIndex();
+    private final ExecutorService executor;
+    private final boolean ownsExecutor;
+    private final ScheduledThreadPoolExecutor watchdog;
+    private final long timeoutMillis;
+    private final LatencyHistogram completionLatency = new LatencyHistogram();
+
+    /**
+     * Creates the dispatcher of the registered handlers.
+     *
+     * @param registrations instantiated handler registrations in registration order
+     * @param executor      executor to run handlers on, null creates a pool of daemon threads owned by the dispatcher
+     * @param timeoutMillis maximum duration of one handler invocation in milliseconds, 0 or less disables the timeout
+     */
+    HandlerDispatcher(List<HandlerRegistration> registrations, ExecutorService executor, long timeoutMillis) {
+        for (int i = 0; i < registrations.size(); i++) {
+            final HandlerRegistration registration = registrations.get(i);
+            tasks.add(new HandlerTask(registration));
+            for (String key : registration.getKeys()) {
+                subscriptionIndex.subscribe(key, i);
+            }
+        }
+        this.timeoutMillis = timeoutMillis;
+        if (registrations.isEmpty()) {
+            this.executor = null;
+            this.ownsExecutor = false;
+            this.watchdog = null;
+        } else {
+            this.ownsExecutor = executor == null;
+            // Threads are bounded by the number of handlers as a handler never runs concurrently with itself
+            this.executor = executor != null ? executor : Executors.newCachedThreadPool(
+                    new BasicThreadFactory.Builder().namingPattern("DynamicConfigHandler-%d").daemon(true).build());
+            this.watchdog = timeoutMillis > 0 ? newWatchdog() : null;
+        }
+    }
+
+    /**
+     * Creates the scheduler of the handler timeouts. A timeout is cancelled when its invocation completes and is then
+     * removed from the queue at once, it does not keep its change and the snapshots of the change until it expires.
+     *
+     * @return watchdog scheduler
+     */
+    private static ScheduledThreadPoolExecutor newWatchdog() {
+        final ScheduledThreadPoolExecutor watchdog = new ScheduledThreadPoolExecutor(1,
+                new BasicThreadFactory.Builder().namingPattern("DynamicConfigHandlerWatchdog-%d").daemon(true).build());
+        watchdog.setRemoveOnCancelPolicy(true);
+        return watchdog;
+    }
+
+    /**
+     * Returns the number of handler timeouts scheduled and not yet expired or cancelled.
+     *
+     * @return number of scheduled timeouts
+     */
+    int scheduledTimeouts() {
+        return watchdog != null ? watchdog.getQueue().size() : 0;
+    }
+
+    /**
+     * Enqueues the change for the handlers subscribed to every change event and the handlers subscribed to at least
+     * one of the changed keys. Must be called in generation order.
+     *
+     * @param change {@link ConfigChange} shared by all the handlers
+     */
+    void dispatch(ConfigChange change) {
+        if (tasks.isEmpty()) {
+            return;
+        }
+        final BitSet subscribed = subscriptionIndex.match(change.getChangedKeys());
+        for (int i = 0; i < tasks.size(); i++) {
+            final HandlerTask task = tasks.get(i);
+            if (task.registration.isAllKeys() || subscribed.get(i)) {
+                task.enqueue(change);
+            }
+        }
+    }
+
+    /**
+     * Returns the latency from the modification of a config source to the completion of a handler invocation on the
+     * resulting change.
+     *
+     * @return {@link LatencyHistogram} of all the handlers
+     */
+    LatencyHistogram completionLatency() {
+        return completionLatency;
+    }
+
+    /**
+     * Returns a statistic of every handler keyed by the handler name, a name registered more than once is suffixed
+     * with {@code #} and the registration index.
+     *
+     * @param statistic statistic of one handler
+     * @param <T>       type of the statistic
+     * @return statistics in registration order
+     */
+    <T> Map<String, T> handlerStatistics(Function<HandlerStatistics, T> statistic) {
+        final Map<String, T> statistics = new LinkedHashMap<>();
+        for (int i = 0; i < tasks.size(); i++) {
+            final HandlerTask task = tasks.get(i);
+            final String name = task.registration.getName();
+            statistics.put(statistics.containsKey(name) ? name + "#" + i : name, statistic.apply(task.statistics));
+        }
+        return statistics;
+    }
+
+    /**
+     * Shuts down the executor and watchdog owned by this dispatcher. An executor provided to the builder is left to
+     * its owner.
+     */
+    void shutdown() {
+        if (ownsExecutor) {
+            executor.shutdownNow();
+        }
+        if (watchdog != null) {
+            watchdog.shutdownNow();
+        }
+    }
+
+    /**
+     * Serial queue of changes of one handler. At most one drain of the queue is submitted to the executor at a time.
+     * The queue is guarded by the run lock.
+     */
+    private final class HandlerTask implements Runnable {
+        private final HandlerRegistration registration;
+        private final Deque<ConfigChange> pending = new ArrayDeque<>();
+        private final Object runLock = new Object();
+        private boolean scheduled;
+        private Thread runner;
+        private long invocation;
+        private final HandlerStatistics statistics = new HandlerStatistics();
+
+        private HandlerTask(HandlerRegistration registration) {
+            this.registration = registration;
+        }
+
+        private void enqueue(ConfigChange change) {
+            synchronized (runLock) {
+                if (pending.size() < MAX_PENDING_CHANGES) {
+                    pending.addLast(change);
+                } else {
+                    pending.addLast(ConfigChange.merge(pending.pollLast(), change));
+                    if (logger.isLoggable(Level.FINE)) {
+                        logger.fine("Handler " + registration.getName() + " is " + MAX_PENDING_CHANGES +
+                                " changes behind, generation " + change.getGeneration() + " is merged.");
+                    }
+                }
+                if (scheduled) {
+                    return;
+                }
+                scheduled = true;
+            }
+            try {
+                executor.execute(this);
+            } catch (RejectedExecutionException e) {
+                synchronized (runLock) {
+                    scheduled = false;
+                }
+                logger.log(Level.SEVERE, "Handler " + registration.getName() + " could not be scheduled for " +
+                        change + ". " + e.getMessage(), e);
+            }
+        }
+
+        @Override
+        public void run() {
+            boolean drained = false;
+            try {
+                while (true) {
+                    final ConfigChange change;
+                    final long current;
+                    synchronized (runLock) {
+                        change = pending.pollFirst();
+                        if (change == null) {
+                            scheduled = false;
+                            drained = true;
+                            return;
+                        }
+                        runner = Thread.currentThread();
+                        current = ++invocation;
+                    }
+                    invoke(change, current);
+                }
+            } finally {
+                if (!drained) {
+                    // The next enqueue schedules the handler again
+                    synchronized (runLock) {
+                        scheduled = false;
+                    }
+                }
+            }
+        }
+
+        private void invoke(ConfigChange change, long current) {
+            final ScheduledFuture<?> timeout = watchdog != null ? watchdog.schedule(
+                    () -> interruptIfRunning(change, current), timeoutMillis, TimeUnit.MILLISECONDS) : null;
+            final long start = System.nanoTime();
+            final Object event = ConfigEvents.beginHandlerInvocation();
+            String outcome = ConfigEvents.COMPLETED;
+            try {
+                registration.getHandler().onChange(change);
+                if (logger.isLoggable(Level.FINE)) {
+                    logger.fine("Handler " + registration.getName() + " completed generation " +
+                            change.getGeneration() + " in " + elapsedMillis(start) + " ms");
+                }
+            } catch (Throwable e) {
+                // An Error of one handler must not stop its later changes either
+                statistics.failures.increment();
+                outcome = ConfigEvents.FAILED;
+                logger.log(Level.SEVERE, "Handler " + registration.getName() + " execution failed after " +
+                        elapsedMillis(start) + " ms. " + e.getMessage(), e);
+            } finally {
+                if (timeout != null) {
+                    timeout.cancel(false);
+                }
+                statistics.invocations.increment();
+                statistics.duration.record(System.nanoTime() - start);
+                if (change.sourceModifiedMillis() > 0) {
+                    completionLatency.recordMillis(System.currentTimeMillis() - change.sourceModifiedMillis());
+                }
+                final boolean interrupted;
+                synchronized (runLock) {
+                    runner = null;
+                    // Clears an interrupt of the watchdog so that it does not leak into the next invocation
+                    interrupted = Thread.interrupted();
+                }
+                ConfigEvents.commitHandlerInvocation(event, registration.getName(), change.getGeneration(),
+                        interrupted ? ConfigEvents.TIMED_OUT : outcome);
+            }
+        }
+
+        private void interruptIfRunning(ConfigChange change, long expected) {
+            synchronized (runLock) {
+                if (runner != null && invocation == expected) {
+                    logger.warning("Handler " + registration.getName() + " exceeded the timeout of " + timeoutMillis +
+                            " ms on generation " + change.getGeneration() + " and is interrupted.");
+                    runner.interrupt();
+                }
+            }
+        }
+    }
+
+    /**
+     * Invocation counters and durations of one handler.
+     */
+    static final class HandlerStatistics {
+        private final LongAdder invocations = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LatencyHistogram duration = new LatencyHistogram();
+
+        long invocations() {
+            return invocations.sum();
+        }
+
+        long failures() {
+            return failures.sum();
+        }
+
+        LatencyHistogram duration() {
+            return duration;
+        }
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+}
@@ -0,0 +1,108 @@
+package com.routp.container.config;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import com.routp.container.config.handler.ConfigChangeHandler;
+
+/**
+ * A {@link ConfigChangeHandler} registered with the {@link DynamicConfig.Builder} together with the keys it is
+ * subscribed to. A registration without keys is invoked on every change event. Handlers registered by class are
+ * instantiated once by {@link #instantiate()} when the {@link DynamicConfig} is built and the same instance is reused
+ * for every change event.
+ *
+ * @author prarout
+ * @since 1.0.0
+ */
+final class HandlerRegistration {
+
+    private final Class<? extends ConfigChangeHandler> handlerClass;
+    private final Set<String> keys = new LinkedHashSet<>();
+    private ConfigChangeHandler handler;
+    private boolean allKeys;
+
+    /**
+     * Registration of a handler class to be instantiated at build time.
+     *
+     * @param handlerClass {@link ConfigChangeHandler} implementation class with a public no-argument constructor
+     */
+    HandlerRegistration(Class<? extends ConfigChangeHandler> handlerClass) {
+        this.handlerClass = handlerClass;
+    }
+
+    /**
+     * Registration of a handler instance.
+     *
+     * @param handler {@link ConfigChangeHandler} instance
+     */
+    HandlerRegistration(ConfigChangeHandler handler) {
+        this.handlerClass = handler.getClass();
+        this.handler = handler;
+    }
+
+    /**
+     * Adds keys or key prefixes to the subscription, no keys subscribes to every change event.
+     *
+     * @param subscribedKeys keys or key prefixes ending with {@code *}
+     */
+    void subscribe(String... subscribedKeys) {
+        if (subscribedKeys == null || subscribedKeys.length == 0) {
+            allKeys = true;
+        } else {
+            Collections.addAll(keys, subscribedKeys);
+        }
+    }
+
+    /**
+     * Creates the handler instance of a class registration, no effect for an instance registration.
+     *
+     * @throws IllegalArgumentException if the handler class can not be instantiated
+     */
+    void instantiate() {
+        if (handler == null) {
+            try {
+                handler = handlerClass.getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                throw new IllegalArgumentException("Handler " + handlerClass.getName() + " instantiation failed. " +
+                        e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Returns the handler instance, null for a class registration until {@link #instantiate()} is called.
+     *
+     * @return {@link ConfigChangeHandler} instance
+     */
+    ConfigChangeHandler getHandler() {
+        return handler;
+    }
+
+    /**
+     * Returns the handler name used in logs.
+     *
+     * @return handler class name
+     */
+    String getName() {
+        return handlerClass.getName();
+    }
+
+    /**
+     * Returns the subscribed keys, an empty set when the handler is subscribed to every change event.
+     *
+     * @return unmodifiable {@link Set} of keys and key prefixes
+     */
+    Set<String> getKeys() {
+        return allKeys ? Collections.emptySet() : Collections.unmodifiableSet(keys);
+    }
+
+    boolean isAllKeys() {
+        return allKeys;
+    }
+
+    @Override
+    public String toString() {
+        return getName() + (allKeys ? "" : keys.toString());
+    }
+}
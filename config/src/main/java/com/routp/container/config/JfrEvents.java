@@ -0,0 +1,146 @@
+package com.routp.container.config;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * The Java Flight Recorder events of {@link DynamicConfig}, only loaded through {@link ConfigEvents} once the
+ * {@code jdk.jfr} module is known to be present. Every event is disabled by default and is enabled by name in a
+ * recording, e.g. {@code com.routp.container.config.HandlerInvocation#enabled=true} in the settings of the
+ * recording. A disabled event is created and dropped without being committed.
+ *
+ * @author prarout
+ * @since 1.0.0
+ */
+final class JfrEvents {
+
+    private static final String CATEGORY = "Dynamic Config";
+
+    private JfrEvents() {
+    }
+
+    /**
+     * Returns {@code true} if the JVM supports Flight Recorder.
+     *
+     * @return {@code true} if Flight Recorder is available
+     */
+    static boolean isAvailable() {
+        return FlightRecorder.isAvailable();
+    }
+
+    static Object beginReload() {
+        final ConfigReload event = new ConfigReload();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    static void commitReload(Object begun, String sources, long generation, int changedKeys, boolean published) {
+        final ConfigReload event = (ConfigReload) begun;
+        event.end();
+        if (event.shouldCommit()) {
+            event.sources = sources;
+            event.generation = generation;
+            event.changedKeys = changedKeys;
+            event.published = published;
+            event.commit();
+        }
+    }
+
+    static Object beginHandlerInvocation() {
+        final HandlerInvocation event = new HandlerInvocation();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    static void commitHandlerInvocation(Object begun, String handler, long generation, String outcome) {
+        final HandlerInvocation event = (HandlerInvocation) begun;
+        event.end();
+        if (event.shouldCommit()) {
+            event.handler = handler;
+            event.generation = generation;
+            event.outcome = outcome;
+            event.commit();
+        }
+    }
+
+    static void watch(Object source, String outcome) {
+        final WatchEvent event = new WatchEvent();
+        if (event.isEnabled()) {
+            event.source = String.valueOf(source);
+            event.outcome = outcome;
+            event.commit();
+        }
+    }
+
+    @Name("com.routp.container.config.ConfigReload")
+    @Label("Config Reload")
+    @Category(CATEGORY)
+    @Description("Overlay of the changed sources and publish of the merged config")
+    @Enabled(false)
+    @StackTrace(false)
+    static final class ConfigReload extends Event {
+        @Label("Sources")
+        @Description("Changed config sources reloaded together")
+        String sources;
+
+        @Label("Generation")
+        @Description("Config generation after the reload")
+        long generation;
+
+        @Label("Changed Keys")
+        @Description("Number of added, removed and modified keys")
+        int changedKeys;
+
+        @Label("Published")
+        @Description("False if the merged config was equal to the current generation")
+        boolean published;
+    }
+
+    @Name("com.routp.container.config.HandlerInvocation")
+    @Label("Config Handler Invocation")
+    @Category(CATEGORY)
+    @Description("Invocation of a change handler on a config change")
+    @Enabled(false)
+    @StackTrace(false)
+    static final class HandlerInvocation extends Event {
+        @Label("Handler")
+        @Description("Class name of the handler")
+        String handler;
+
+        @Label("Generation")
+        @Description("Config generation of the change")
+        long generation;
+
+        @Label("Outcome")
+        @Description("completed, failed or timed out")
+        String outcome;
+    }
+
+    @Name("com.routp.container.config.WatchEvent")
+    @Label("Config Watch Event")
+    @Category(CATEGORY)
+    @Description("Change event of a config source")
+    @Enabled(false)
+    @StackTrace(false)
+    static final class WatchEvent extends Event {
+        @Label("Source")
+        @Description("Config source file or directory")
+        String source;
+
+        @Label("Outcome")
+        @Description("received, suppressed as the content did not change, or debounced into a pending reload")
+        String outcome;
+    }
+}
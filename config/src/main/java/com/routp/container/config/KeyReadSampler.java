@@ -0,0 +1,110 @@
+package com.routp.container.config;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Samples the reads of the getters of {@link DynamicConfig} per key to report the hot keys and the keys never read
+ * since the config was initialized. One read in {@code period} is sampled at random and counted in a striped
+ * {@link LongAdder} of its key, the reported read counts are estimates scaled by the period. Only the reads of keys
+ * found in the config are sampled, a read of a missing key takes no place. At most {@link #MAX_KEYS} distinct keys
+ * are tracked, reads of further keys are counted as dropped and the unread keys are then unknown, as a key of the
+ * config may have been read without being tracked.
+ * <p>
+ * A key read rarely may not be sampled with a period above 1 and is then reported as never read, a period of 1 counts
+ * every read exactly.
+ * </p>
+ *
+ * @author prarout
+ * @since 1.0.0
+ */
+final class KeyReadSampler {
+
+    static final int MAX_KEYS = 10_000;
+
+    private final int period;
+    private final Map<String, LongAdder> counts = new ConcurrentHashMap<>();
+    private final LongAdder dropped = new LongAdder();
+
+    /**
+     * @param period one read in this number of reads is sampled, 1 samples every read
+     */
+    KeyReadSampler(int period) {
+        this.period = Math.max(1, period);
+    }
+
+    /**
+     * Samples a read of a key found in the config.
+     *
+     * @param key key name in the config
+     */
+    void sample(String key) {
+        if (key == null || period > 1 && ThreadLocalRandom.current().nextInt(period) != 0) {
+            return;
+        }
+        LongAdder count = counts.get(key);
+        if (count == null) {
+            if (counts.size() >= MAX_KEYS) {
+                dropped.increment();
+                return;
+            }
+            count = counts.computeIfAbsent(key, name -> new LongAdder());
+        }
+        count.increment();
+    }
+
+    /**
+     * Returns the most read keys with their estimated read counts, most read first.
+     *
+     * @param limit maximum number of keys
+     * @return estimated read counts by key
+     */
+    Map<String, Long> hotKeys(int limit) {
+        final List<Map.Entry<String, Long>> sampled = new ArrayList<>(counts.size());
+        for (Map.Entry<String, LongAdder> entry : counts.entrySet()) {
+            sampled.add(new AbstractMap.SimpleImmutableEntry<>(entry.getKey(),
+                    entry.getValue().sum() * period));
+        }
+        sampled.sort(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()));
+        final Map<String, Long> hotKeys = new LinkedHashMap<>();
+        for (Map.Entry<String, Long> entry : sampled.subList(0, Math.min(Math.max(0, limit), sampled.size()))) {
+            hotKeys.put(entry.getKey(), entry.getValue());
+        }
+        return Collections.unmodifiableMap(hotKeys);
+    }
+
+    /**
+     * Returns the keys of a snapshot which were never sampled, only meaningful while no sample was dropped.
+     *
+     * @param snapshot {@link ConfigSnapshot} holding the keys
+     * @return keys in natural order
+     */
+    Set<String> unreadKeys(ConfigSnapshot snapshot) {
+        final Set<String> unread = new TreeSet<>();
+        for (int i = 0; i < snapshot.capacity(); i++) {
+            final String key = snapshot.keyAt(i);
+            if (key != null && !counts.containsKey(key)) {
+                unread.add(key);
+            }
+        }
+        return Collections.unmodifiableSet(unread);
+    }
+
+    /**
+     * Returns the number of sampled reads not counted as {@link #MAX_KEYS} keys were already tracked.
+     *
+     * @return number of dropped samples
+     */
+    long dropped() {
+        return dropped.sum();
+    }
+}
@@ -0,0 +1,84 @@
+package com.routp.container.config;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Writes the published snapshots to the last known good config file on its own executor, the reload writer never
+ * waits for the file system. Snapshots saved while a write is running are coalesced, only the latest one is written
+ * next.
+ *
+ * @author prarout
+ * @since 1.0.0
+ */
+final class LastKnownGoodWriter {
+    private static final Logger logger = Logger.getLogger(LastKnownGoodWriter.class.getName());
+
+    private final Path file;
+    private final Executor executor;
+    private final AtomicReference<ConfigSnapshot> latest = new AtomicReference<>();
+    // Number of saves not yet seen by the write loop, the loop runs while it is not zero
+    private final AtomicInteger pending = new AtomicInteger();
+
+    /**
+     * @param file     last known good config file
+     * @param executor executor running the writes
+     */
+    LastKnownGoodWriter(Path file, Executor executor) {
+        this.file = file;
+        this.executor = executor;
+    }
+
+    /**
+     * Schedules the write of a published snapshot, replacing a snapshot saved earlier and not yet written.
+     *
+     * @param published published {@link ConfigSnapshot}
+     */
+    void save(ConfigSnapshot published) {
+        latest.set(published);
+        if (pending.getAndIncrement() == 0) {
+            try {
+                executor.execute(this::writeLatest);
+            } catch (RejectedExecutionException e) {
+                pending.set(0);
+                logger.fine("Last known good config " + file + " not written, the writer is shut down.");
+            }
+        }
+    }
+
+    private void writeLatest() {
+        int missed = 1;
+        do {
+            final ConfigSnapshot snapshot = latest.getAndSet(null);
+            if (snapshot != null) {
+                write(snapshot);
+            }
+            missed = pending.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    /**
+     * Writes a snapshot to the file. A failure is logged, the previous file is kept.
+     *
+     * @param snapshot {@link ConfigSnapshot} to write
+     */
+    private void write(ConfigSnapshot snapshot) {
+        try {
+            final long start = System.nanoTime();
+            SnapshotFile.write(file, snapshot);
+            if (logger.isLoggable(Level.FINE)) {
+                logger.fine("Config generation " + snapshot.getGeneration() + " written to " + file + " in " +
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms.");
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.log(Level.WARNING, "Last known good config " + file + " can not be written. " + e.getMessage(), e);
+        }
+    }
+}
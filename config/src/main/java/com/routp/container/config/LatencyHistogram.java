@@ -0,0 +1,138 @@
+package com.routp.container.config;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A concurrent histogram of durations in nanoseconds with log-linear buckets: every power of two is split into eight
+ * linear buckets, so a percentile is reported with a relative error of at most 12.5% whatever the magnitude, from
+ * nanoseconds to hours, in a fixed 4 KiB of counters. Recording is lock-free and never allocates, reads see a
+ * consistent enough view for monitoring but are not atomic with concurrent records.
+ *
+ * @author prarout
+ * @since 1.0.0
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    LatencyHistogram() {
+    }
+
+    /**
+     * Records a duration, a negative duration is recorded as 0.
+     *
+     * @param nanos duration in nanoseconds
+     */
+    void record(long nanos) {
+        final long value = Math.max(0, nanos);
+        counts.incrementAndGet(bucket(value));
+        count.increment();
+        sum.add(value);
+        long current;
+        while (value > (current = max.get()) && !max.compareAndSet(current, value)) {
+            // Retried until the maximum is at least the recorded value
+        }
+    }
+
+    /**
+     * Records a duration measured in milliseconds.
+     *
+     * @param millis duration in milliseconds
+     */
+    void recordMillis(long millis) {
+        record(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+
+    /**
+     * Returns the number of recorded durations.
+     *
+     * @return number of recorded durations
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Returns the longest recorded duration.
+     *
+     * @param unit unit of the result
+     * @return longest recorded duration, 0 if nothing is recorded
+     */
+    public long getMax(TimeUnit unit) {
+        return unit.convert(max.get(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Returns the mean of the recorded durations.
+     *
+     * @param unit unit of the result
+     * @return mean duration, 0 if nothing is recorded
+     */
+    public double getMean(TimeUnit unit) {
+        final long recorded = count.sum();
+        return recorded == 0 ? 0 : (double) sum.sum() / recorded / unit.toNanos(1);
+    }
+
+    /**
+     * Returns the duration which the given percentage of the recorded durations do not exceed, rounded up to the
+     * upper bound of its bucket and capped at the longest recorded duration.
+     *
+     * @param percentile percentage between 0 and 100, for example 99 for the 99th percentile
+     * @param unit       unit of the result
+     * @return duration at the percentile, 0 if nothing is recorded
+     */
+    public long getPercentile(double percentile, TimeUnit unit) {
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            total += counts.get(i);
+        }
+        if (total == 0) {
+            return 0;
+        }
+        final long rank = Math.max(1, (long) Math.ceil(Math.min(100, Math.max(0, percentile)) / 100 * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return unit.convert(Math.min(upperBound(i), max.get()), TimeUnit.NANOSECONDS);
+            }
+        }
+        return unit.convert(max.get(), TimeUnit.NANOSECONDS);
+    }
+
+    private static int bucket(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        final int exponent = 63 - Long.numberOfLeadingZeros(value);
+        final int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    private static long upperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        final int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        final long width = 1L << (exponent - SUB_BUCKET_BITS);
+        final long lowerBound = (1L << exponent) + (bucket % SUB_BUCKETS) * width;
+        return lowerBound + width - 1;
+    }
+
+    @Override
+    public String toString() {
+        return "LatencyHistogram{count: " + getCount() + ", p50: " + getPercentile(50, TimeUnit.MILLISECONDS) +
+                " ms, p99: " + getPercentile(99, TimeUnit.MILLISECONDS) + " ms, max: " +
+                getMax(TimeUnit.MILLISECONDS) + " ms}";
+    }
+}
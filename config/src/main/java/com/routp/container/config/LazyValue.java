@@ -0,0 +1,191 @@
+package com.routp.container.config;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Objects;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * The value of a directory source entry, the content of one file which is read on first access. The file metadata is
+ * captured when the directory is scanned, an instance is reused by the next scan as long as the metadata of its file
+ * is unchanged so an unchanged file is never read again. Two instances are equal when they describe the same file
+ * with the same metadata.
+ * <p>
+ * A value belongs to the snapshot of its scan: the content read on first access is kept only if the file still has
+ * the metadata captured by the scan, a file changed since then is missing from that snapshot until the next scan
+ * publishes a new value. A file which can not be read is missing as well, the failure is kept and logged once instead
+ * of reading the file again on every access, the next scan replaces the value.
+ * </p>
+ * <p>
+ * The content is read as Helidon's directory source reads it: UTF-8 lines joined with {@code \n}.
+ * </p>
+ *
+ * @author prarout
+ * @since 1.0.0
+ */
+final class LazyValue {
+    private static final Logger logger = Logger.getLogger(LazyValue.class.getName());
+    // Loaded state of a file which could not be read or changed since the scan
+    private static final Loaded MISSING = new Loaded();
+
+    private final Path file;
+    private final long modifiedMillis;
+    private final long size;
+    private final Object fileKey;
+    private volatile Loaded loaded;
+
+    /**
+     * @param file       file holding the value
+     * @param attributes metadata of the file at scan time
+     */
+    LazyValue(Path file, BasicFileAttributes attributes) {
+        this.file = file;
+        this.modifiedMillis = attributes.lastModifiedTime().toMillis();
+        this.size = attributes.size();
+        this.fileKey = attributes.fileKey();
+    }
+
+    /**
+     * Returns {@code true} if the file still has the metadata captured by this value.
+     *
+     * @param attributes current metadata of the file
+     * @return {@code true} if the file is unchanged
+     */
+    boolean isUnchanged(BasicFileAttributes attributes) {
+        return modifiedMillis == attributes.lastModifiedTime().toMillis() && size == attributes.size()
+                && Objects.equals(fileKey, attributes.fileKey());
+    }
+
+    /**
+     * Returns the content of the file, read on the first call. Null if the file can not be read or changed since the
+     * scan, the file is then not read again.
+     *
+     * @return value of the entry
+     */
+    String get() {
+        final Loaded value = load();
+        return value != null ? value.value : null;
+    }
+
+    /**
+     * Returns the content if it was already read, otherwise null without reading the file.
+     *
+     * @return value of the entry or null
+     */
+    String getIfLoaded() {
+        final Loaded value = loaded;
+        return value != null ? value.value : null;
+    }
+
+    /**
+     * Returns {@code true} if the file was read and could not be read or changed since the scan, the value is to be
+     * replaced by the next scan.
+     *
+     * @return {@code true} if the value is missing
+     */
+    boolean isMissing() {
+        return loaded == MISSING;
+    }
+
+    /**
+     * Returns the content with its pre-parsed primitive forms, read on the first call.
+     *
+     * @return loaded value, null if the file can not be read or changed since the scan
+     */
+    Loaded load() {
+        Loaded value = loaded;
+        if (value == null) {
+            // Concurrent first reads may both read the file, they keep equal results
+            value = read();
+            loaded = value;
+        }
+        return value != MISSING ? value : null;
+    }
+
+    private Loaded read() {
+        try {
+            final String content;
+            try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                content = reader.lines().collect(Collectors.joining("\n"));
+            }
+            // Checked after the read, a change before or during the read changes the metadata
+            if (!isUnchanged(Files.readAttributes(file, BasicFileAttributes.class))) {
+                if (logger.isLoggable(Level.FINE)) {
+                    logger.fine("Config file " + file + " changed since its directory was scanned, it is missing" +
+                            " until the next scan.");
+                }
+                return MISSING;
+            }
+            return new Loaded(content);
+        } catch (IOException | RuntimeException e) {
+            logger.warning("Config file " + file + " can not be read, it is missing until the next scan. " +
+                    e.getMessage());
+            if (logger.isLoggable(Level.FINE)) {
+                logger.log(Level.FINE, "Config file " + file + " read failure.", e);
+            }
+            return MISSING;
+        }
+    }
+
+    /**
+     * Returns a fingerprint of the file metadata, the content is not read.
+     *
+     * @return 64-bit fingerprint
+     */
+    long fingerprint() {
+        long hash = Fingerprint.of(file.toString());
+        hash = Fingerprint.combine(hash, modifiedMillis);
+        hash = Fingerprint.combine(hash, size);
+        return Fingerprint.combine(hash, Objects.hashCode(fileKey));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof LazyValue)) {
+            return false;
+        }
+        final LazyValue other = (LazyValue) o;
+        return modifiedMillis == other.modifiedMillis && size == other.size && file.equals(other.file)
+                && Objects.equals(fileKey, other.fileKey);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(file, modifiedMillis, size);
+    }
+
+    @Override
+    public String toString() {
+        final String value = getIfLoaded();
+        return value != null ? value : "<" + file + " not loaded>";
+    }
+
+    /**
+     * Content of the file and its primitive forms parsed once on load.
+     */
+    static final class Loaded {
+        final String value;
+        final long[] longValue = new long[1];
+        final double[] doubleValue = new double[1];
+        final byte flags;
+
+        private Loaded(String value) {
+            this.value = value;
+            this.flags = ConfigSnapshot.parsePrimitives(value, longValue, doubleValue, 0);
+        }
+
+        private Loaded() {
+            this.value = null;
+            this.flags = 0;
+        }
+    }
+}
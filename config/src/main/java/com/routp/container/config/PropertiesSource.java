@@ -0,0 +1,383 @@
+package com.routp.container.config;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import io.helidon.config.ConfigException;
+
+/**
+ * A {@code .properties} config source parsed in one pass over the bytes of the file. Helidon's file source reads the
+ * file into a string, loads it through a reader into {@link java.util.Properties} and builds a config tree which is
+ * flattened again; this source maps a large file into memory, reads a small one into a reused buffer, and creates the
+ * key and value strings straight from the bytes. A plain ASCII line allocates nothing but its two strings.
+ * <p>
+ * The syntax is the one of {@link java.util.Properties#load(java.io.Reader)} on the UTF-8 content as Helidon reads
+ * it: {@code #} and {@code !} comment lines, {@code =}, {@code :} or white space separators, line continuations and
+ * escapes including {@code \\uXXXX}. The source fingerprints the content while reading it, a read of unchanged content
+ * is not parsed and is counted as a suppressed change.
+ * </p>
+ * Reads are not thread-safe. The initial load runs on the thread building {@link DynamicConfig}, before the source is
+ * ticked, and every reload runs on the single reloader thread: a tick only hands the reload to the reload executor
+ * of {@link SourceTicks#onTick}. The executor runs one reload at a time, and its task hand-off makes the state of a
+ * read visible to the next one.
+ *
+ * @author prarout
+ * @since 1.0.0
+ */
+final class PropertiesSource {
+    private static final Logger logger = Logger.getLogger(PropertiesSource.class.getName());
+
+    // Smaller files are copied into the reused buffer, mapping costs more than copying a few pages
+    static final int MAP_THRESHOLD = 64 * 1024;
+    private static final ByteBuffer EMPTY = ByteBuffer.allocate(0);
+
+    private final Path file;
+    private final LongAdder suppressedReads;
+    private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE).onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private ByteBuffer readBuffer = EMPTY;
+    private byte[] bytes = new byte[128];
+    private CharBuffer lineChars = CharBuffer.allocate(128);
+    private char[] convertedChars = new char[128];
+    private long fingerprint;
+    private int lastSize;
+    private boolean missing;
+
+    /**
+     * @param file            properties file
+     * @param suppressedReads counter of the reads suppressed as the content did not change
+     */
+    PropertiesSource(Path file, LongAdder suppressedReads) {
+        this.file = file;
+        this.suppressedReads = suppressedReads;
+    }
+
+    /**
+     * Returns {@code true} if the file is parsed by this source rather than by Helidon.
+     *
+     * @param path config source file
+     * @return {@code true} for a {@code .properties} file
+     */
+    static boolean isPropertiesFile(Path path) {
+        final Path fileName = path.getFileName();
+        return fileName != null && fileName.toString().endsWith(".properties");
+    }
+
+    /**
+     * Reads and parses the file at initialization, the file is mandatory.
+     *
+     * @return unmodifiable {@link Map} of the entries
+     * @throws ConfigException if the file can not be read or parsed
+     */
+    Map<String, String> load() {
+        try {
+            final ByteBuffer content = read();
+            fingerprint = Fingerprint.of(content);
+            return parse(content);
+        } catch (IOException | RuntimeException e) {
+            throw new ConfigException("Cannot load data from mandatory source " + file + ". " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Reads the file after a change event and parses it if its content changed. A missing file has no entries, a file
+     * which can not be read or parsed keeps its previous entries.
+     *
+     * @return unmodifiable {@link Map} of the entries, null if the content did not change or can not be read
+     */
+    Map<String, String> reload() {
+        try {
+            ByteBuffer content;
+            try {
+                content = read();
+                missing = false;
+            } catch (NoSuchFileException e) {
+                logger.warning("Config file " + file + " does not exist.");
+                content = EMPTY;
+                missing = true;
+            }
+            final long changedFingerprint = Fingerprint.of(content);
+            if (changedFingerprint == fingerprint) {
+                suppressedReads.increment();
+                ConfigEvents.watch(file, ConfigEvents.SUPPRESSED);
+                if (logger.isLoggable(Level.FINE)) {
+                    logger.fine("Config file " + file + " read, the content did not change.");
+                }
+                return null;
+            }
+            final Map<String, String> entries = parse(content);
+            fingerprint = changedFingerprint;
+            return entries;
+        } catch (IOException | RuntimeException | InternalError e) {
+            // A mapped file truncated while it is parsed raises an InternalError, the next change event reads it again
+            logger.log(Level.WARNING, "Config file " + file + " can not be read. " + e.getMessage(), e);
+            return null;
+        }
+    }
+
+    /**
+     * Returns {@code true} if the file did not exist when it was last reloaded.
+     *
+     * @return {@code true} if the file is missing
+     */
+    boolean isMissing() {
+        return missing;
+    }
+
+    private ByteBuffer read() throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Config file " + file + " is too large: " + size + " bytes.");
+            }
+            if (size >= MAP_THRESHOLD) {
+                return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            }
+            if (readBuffer.capacity() <= size) {
+                readBuffer = ByteBuffer.allocate(Math.max(4096, Integer.highestOneBit((int) size) << 1));
+            }
+            readBuffer.clear();
+            // Reads up to the end of the file, it may have grown since its size was taken
+            while (channel.read(readBuffer) >= 0) {
+                if (!readBuffer.hasRemaining()) {
+                    final ByteBuffer grown = ByteBuffer.allocate(readBuffer.capacity() << 1);
+                    readBuffer.flip();
+                    readBuffer = grown.put(readBuffer);
+                }
+            }
+            readBuffer.flip();
+            return readBuffer;
+        }
+    }
+
+    /**
+     * Parses the properties of the remaining bytes of the buffer, a later entry overrides an earlier one with the same
+     * key.
+     *
+     * @param content UTF-8 encoded properties
+     * @return unmodifiable {@link Map} of the entries
+     * @throws IllegalArgumentException if the content has a malformed {@code \\uXXXX} escape
+     */
+    Map<String, String> parse(ByteBuffer content) {
+        final Map<String, String> entries = new HashMap<>(Math.max(16, (int) (lastSize / 0.75f) + 1));
+        final int end = content.limit();
+        int i = content.position();
+        while (i < end) {
+            byte b = content.get(i);
+            // Leading white space and blank lines
+            if (b == ' ' || b == '\t' || b == '\f' || b == '\r' || b == '\n') {
+                i++;
+                continue;
+            }
+            // A continuation of nothing joins an empty line, the next line is parsed as a new one
+            if (b == '\\' && i + 1 < end && (content.get(i + 1) == '\n' || content.get(i + 1) == '\r')) {
+                i++;
+                continue;
+            }
+            if (b == '#' || b == '!') {
+                while (i < end && (b = content.get(i)) != '\n' && b != '\r') {
+                    i++;
+                }
+                continue;
+            }
+            // A line without escapes, continuations or non-ASCII characters is split right on the bytes
+            final int start = i;
+            boolean plain = true;
+            while (i < end && (b = content.get(i)) != '\n' && b != '\r') {
+                if (b == '\\' || b < 0) {
+                    plain = false;
+                }
+                i++;
+            }
+            if (plain) {
+                parsePlainLine(content, start, i, entries);
+            } else {
+                i = parseLine(content, start, end, entries);
+            }
+        }
+        lastSize = entries.size();
+        return Collections.unmodifiableMap(entries);
+    }
+
+    private void parsePlainLine(ByteBuffer content, int start, int end, Map<String, String> entries) {
+        int keyEnd = start;
+        byte b = 0;
+        while (keyEnd < end && (b = content.get(keyEnd)) != '=' && b != ':' && !isWhitespace(b)) {
+            keyEnd++;
+        }
+        boolean separator = keyEnd < end && !isWhitespace(b);
+        int valueStart = keyEnd < end ? keyEnd + 1 : end;
+        while (valueStart < end) {
+            b = content.get(valueStart);
+            if (!isWhitespace(b)) {
+                if (separator || b != '=' && b != ':') {
+                    break;
+                }
+                separator = true;
+            }
+            valueStart++;
+        }
+        entries.put(ascii(content, start, keyEnd), ascii(content, valueStart, end));
+    }
+
+    /**
+     * Parses a logical line with escapes, continuations or non-ASCII characters, it is decoded into characters first.
+     *
+     * @return index after the logical line
+     */
+    private int parseLine(ByteBuffer content, int start, int end, Map<String, String> entries) {
+        // The logical line continues while a physical line ends with an odd number of backslashes
+        int lineEnd = start;
+        while (true) {
+            int backslashes = 0;
+            byte b;
+            while (lineEnd < end && (b = content.get(lineEnd)) != '\n' && b != '\r') {
+                backslashes = b == '\\' ? backslashes + 1 : 0;
+                lineEnd++;
+            }
+            if ((backslashes & 1) == 0 || lineEnd == end) {
+                break;
+            }
+            lineEnd += content.get(lineEnd) == '\r' && lineEnd + 1 < end && content.get(lineEnd + 1) == '\n' ? 2 : 1;
+        }
+        final char[] line = decode(content, start, lineEnd);
+        final int length = joinContinuations(line, lineChars.position());
+
+        int keyEnd = 0;
+        boolean escaped = false;
+        for (; keyEnd < length; keyEnd++) {
+            final char c = line[keyEnd];
+            if (escaped) {
+                escaped = false;
+            } else if (c == '\\') {
+                escaped = true;
+            } else if (c == '=' || c == ':' || isWhitespace(c)) {
+                break;
+            }
+        }
+        boolean separator = keyEnd < length && !isWhitespace(line[keyEnd]);
+        int valueStart = keyEnd < length ? keyEnd + 1 : length;
+        for (; valueStart < length; valueStart++) {
+            final char c = line[valueStart];
+            if (!isWhitespace(c)) {
+                if (separator || c != '=' && c != ':') {
+                    break;
+                }
+                separator = true;
+            }
+        }
+        entries.put(unescape(line, 0, keyEnd), unescape(line, valueStart, length));
+        return lineEnd;
+    }
+
+    private char[] decode(ByteBuffer content, int start, int end) {
+        // UTF-8 never decodes into more chars than bytes
+        if (lineChars.capacity() < end - start) {
+            lineChars = CharBuffer.allocate(Math.max(end - start, lineChars.capacity() << 1));
+        }
+        final ByteBuffer line = content.duplicate();
+        line.limit(end).position(start);
+        lineChars.clear();
+        decoder.reset();
+        decoder.decode(line, lineChars, true);
+        decoder.flush(lineChars);
+        return lineChars.array();
+    }
+
+    /**
+     * Removes the backslash, line break and leading white space of every continuation in place, other escapes are
+     * kept for {@link #unescape(char[], int, int)}.
+     *
+     * @return length of the joined line
+     */
+    private static int joinContinuations(char[] line, int length) {
+        int joined = 0;
+        for (int i = 0; i < length; i++) {
+            final char c = line[i];
+            if (c != '\\') {
+                line[joined++] = c;
+            } else if (i + 1 < length && line[i + 1] != '\n' && line[i + 1] != '\r') {
+                line[joined++] = c;
+                line[joined++] = line[++i];
+            } else if (i + 1 < length) {
+                i += line[i + 1] == '\r' && i + 2 < length && line[i + 2] == '\n' ? 2 : 1;
+                while (i + 1 < length && isWhitespace(line[i + 1])) {
+                    i++;
+                }
+            }
+            // A backslash at the end of the file is dropped
+        }
+        return joined;
+    }
+
+    private String unescape(char[] line, int start, int end) {
+        if (convertedChars.length < end - start) {
+            convertedChars = new char[Math.max(end - start, convertedChars.length << 1)];
+        }
+        final char[] converted = convertedChars;
+        int length = 0;
+        for (int i = start; i < end; i++) {
+            char c = line[i];
+            if (c == '\\' && ++i < end) {
+                c = line[i];
+                if (c == 'u') {
+                    if (i + 4 >= end) {
+                        throw new IllegalArgumentException("Malformed \\uxxxx encoding.");
+                    }
+                    int code = 0;
+                    for (int j = 1; j <= 4; j++) {
+                        final int digit = Character.digit(line[i + j], 16);
+                        if (digit < 0) {
+                            throw new IllegalArgumentException("Malformed \\uxxxx encoding.");
+                        }
+                        code = code << 4 | digit;
+                    }
+                    i += 4;
+                    c = (char) code;
+                } else if (c == 't') {
+                    c = '\t';
+                } else if (c == 'r') {
+                    c = '\r';
+                } else if (c == 'n') {
+                    c = '\n';
+                } else if (c == 'f') {
+                    c = '\f';
+                }
+            }
+            converted[length++] = c;
+        }
+        return new String(converted, 0, length);
+    }
+
+    private String ascii(ByteBuffer content, int start, int end) {
+        final int length = end - start;
+        if (content.hasArray()) {
+            return new String(content.array(), content.arrayOffset() + start, length, StandardCharsets.ISO_8859_1);
+        }
+        if (bytes.length < length) {
+            bytes = new byte[Math.max(length, bytes.length << 1)];
+        }
+        for (int i = 0; i < length; i++) {
+            bytes[i] = content.get(start + i);
+        }
+        return new String(bytes, 0, length, StandardCharsets.ISO_8859_1);
+    }
+
+    private static boolean isWhitespace(int c) {
+        return c == ' ' || c == '\t' || c == '\f';
+    }
+}
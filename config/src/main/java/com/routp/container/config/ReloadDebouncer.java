@@ -0,0 +1,112 @@
+package com.routp.container.config;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Collapses a burst of change events into one reload. The reload runs once no event was signalled for the quiet
+ * period, or once the maximum delay since the first event of the burst has elapsed, whichever comes first. The
+ * maximum delay bounds the staleness of the config under a continuous stream of events.
+ * <p>
+ * A quiet period of zero disables debouncing, the reload then runs on the signalling thread.
+ * </p>
+ *
+ * @author prarout
+ * @since 1.0.0
+ */
+final class ReloadDebouncer {
+    private static final Logger logger = Logger.getLogger(ReloadDebouncer.class.getName());
+
+    private final ScheduledExecutorService scheduler;
+    private final long quietPeriodNanos;
+    private final long maxDelayNanos;
+    private final Runnable reload;
+
+    private final Object lock = new Object();
+    private boolean scheduled;
+    private long firstSignalNanos;
+    private long lastSignalNanos;
+    private int coalesced;
+
+    /**
+     * Creates the debouncer of a reload action.
+     *
+     * @param scheduler        scheduler the reload runs on, not used when the quiet period is zero
+     * @param quietPeriodNanos quiet period in nanoseconds, 0 runs the reload on every signal
+     * @param maxDelayNanos    maximum delay between the first event of a burst and the reload in nanoseconds
+     * @param reload           reload action
+     */
+    ReloadDebouncer(ScheduledExecutorService scheduler, long quietPeriodNanos, long maxDelayNanos, Runnable reload) {
+        this.scheduler = scheduler;
+        this.quietPeriodNanos = Math.max(0, quietPeriodNanos);
+        this.maxDelayNanos = Math.max(this.quietPeriodNanos, maxDelayNanos);
+        this.reload = reload;
+    }
+
+    /**
+     * Returns {@code true} if change events are debounced, {@code false} if every signal runs the reload.
+     *
+     * @return {@code true} if a quiet period is configured
+     */
+    boolean isDebouncing() {
+        return quietPeriodNanos > 0;
+    }
+
+    /**
+     * Signals a change event.
+     */
+    void signal() {
+        if (quietPeriodNanos == 0) {
+            reload.run();
+            return;
+        }
+        synchronized (lock) {
+            final long now = System.nanoTime();
+            if (!scheduled) {
+                scheduled = true;
+                firstSignalNanos = now;
+                coalesced = 0;
+                schedule(quietPeriodNanos);
+            }
+            lastSignalNanos = now;
+            coalesced++;
+        }
+    }
+
+    /**
+     * Runs the reload if the burst is over, otherwise waits for the remaining quiet period or maximum delay.
+     */
+    private void fire() {
+        final int events;
+        synchronized (lock) {
+            final long now = System.nanoTime();
+            final long deadline = Math.min(lastSignalNanos + quietPeriodNanos, firstSignalNanos + maxDelayNanos);
+            if (now - deadline < 0) {
+                schedule(deadline - now);
+                return;
+            }
+            scheduled = false;
+            events = coalesced;
+        }
+        if (logger.isLoggable(Level.FINE)) {
+            logger.fine("Reloading after " + events + " coalesced change events.");
+        }
+        try {
+            reload.run();
+        } catch (Exception e) {
+            logger.log(Level.SEVERE, "Config object reload failed on change event", e);
+        }
+    }
+
+    private void schedule(long delayNanos) {
+        try {
+            scheduler.schedule(this::fire, delayNanos, TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            // Terminated, the pending reload is dropped
+            scheduled = false;
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.routp.container.config;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Sequenced hand-off of the reloaded sources to a single reload writer. Every read of a source takes a sequence number
+ * before it starts, its result is kept as the pending entries of the layer of the source only if no read of the same
+ * source with a higher sequence was offered or taken yet. A slow read finishing after a newer one is discarded as
+ * stale instead of overwriting the newer entries, the published config is the one of the latest read whatever order
+ * the reads complete in.
+ * <p>
+ * {@link #drain()} runs the reload on one thread at a time without blocking the others: a thread signalling while a
+ * reload is running returns at once and the running thread reloads again, so the pending entries offered meanwhile are
+ * published by the next pass of the same writer.
+ * </p>
+ *
+ * @author prarout
+ * @since 1.0.0
+ */
+final class ReloadPipeline {
+    private static final Logger logger = Logger.getLogger(ReloadPipeline.class.getName());
+
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicReferenceArray<PendingLayer> pendingLayers;
+    // Sequence of the latest entries taken by the writer per layer
+    private final AtomicLongArray takenSequences;
+    private final AtomicInteger drains = new AtomicInteger();
+    private final LongAdder staleReads;
+    private final Runnable reload;
+
+    /**
+     * @param layers       number of config layers
+     * @param staleReads counter of the reads discarded as a newer read of the same source was offered
+     * @param reload       reload action taking the pending layers, run by one thread at a time
+     */
+    ReloadPipeline(int layers, LongAdder staleReads, Runnable reload) {
+        this.pendingLayers = new AtomicReferenceArray<>(layers);
+        this.takenSequences = new AtomicLongArray(layers);
+        this.staleReads = staleReads;
+        this.reload = reload;
+    }
+
+    /**
+     * Returns the sequence number of a read of a source about to start.
+     *
+     * @return sequence number, higher than the ones returned before
+     */
+    long nextSequence() {
+        return sequence.incrementAndGet();
+    }
+
+    /**
+     * Offers the result of a read of a source. Coalesced results are measured from the earliest modification.
+     *
+     * @param layer          layer index of the source
+     * @param sequence       sequence number taken before the read started
+     * @param entries        reloaded entries of the source
+     * @param modifiedMillis modification time of the source, 0 if unknown
+     * @return {@code true} if the entries are pending, {@code false} if they were discarded as stale
+     */
+    boolean offer(int layer, long sequence, Map<String, ?> entries, long modifiedMillis) {
+        while (true) {
+            final PendingLayer pending = pendingLayers.get(layer);
+            if (sequence <= takenSequences.get(layer) || pending != null && sequence <= pending.sequence) {
+                discard(layer, sequence);
+                return false;
+            }
+            final long earliestMillis = pending == null || pending.modifiedMillis == 0 ? modifiedMillis
+                    : modifiedMillis == 0 ? pending.modifiedMillis : Math.min(pending.modifiedMillis, modifiedMillis);
+            if (pendingLayers.compareAndSet(layer, pending,
+                    new PendingLayer(sequence, entries, earliestMillis))) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Takes the pending entries of a layer, only called by the reload writer.
+     *
+     * @param layer layer index of the source
+     * @return {@link PendingLayer}, null if nothing newer than the entries taken before is pending
+     */
+    PendingLayer take(int layer) {
+        final PendingLayer pending = pendingLayers.getAndSet(layer, null);
+        if (pending == null) {
+            return null;
+        }
+        // Offered while a newer one was taken, the check of offer raced with the previous take
+        if (pending.sequence <= takenSequences.get(layer)) {
+            discard(layer, pending.sequence);
+            return null;
+        }
+        takenSequences.set(layer, pending.sequence);
+        return pending;
+    }
+
+    /**
+     * Returns the number of layers.
+     *
+     * @return number of layers
+     */
+    int layers() {
+        return pendingLayers.length();
+    }
+
+    /**
+     * Runs the reload on the current thread unless another thread is running it, which then runs it once more.
+     */
+    void drain() {
+        if (drains.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        do {
+            try {
+                reload.run();
+            } catch (Exception e) {
+                logger.log(Level.SEVERE, "Config object reload failed on change event", e);
+            }
+            missed = drains.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private void discard(int layer, long sequence) {
+        staleReads.increment();
+        if (logger.isLoggable(Level.FINE)) {
+            logger.fine("Stale read " + sequence + " of config layer " + layer +
+                    " discarded, a newer read was received.");
+        }
+    }
+
+    /**
+     * Latest entries of a layer waiting for the reload.
+     */
+    static final class PendingLayer {
+        private final long sequence;
+        private final Map<String, ?> entries;
+        private final long modifiedMillis;
+
+        private PendingLayer(long sequence, Map<String, ?> entries, long modifiedMillis) {
+            this.sequence = sequence;
+            this.entries = entries;
+            this.modifiedMillis = modifiedMillis;
+        }
+
+        long sequence() {
+            return sequence;
+        }
+
+        Map<String, ?> entries() {
+            return entries;
+        }
+
+        long modifiedMillis() {
+            return modifiedMillis;
+        }
+    }
+}
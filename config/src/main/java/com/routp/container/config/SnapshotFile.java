@@ -0,0 +1,188 @@
+package com.routp.container.config;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Binary file of the last known good config: the entries of the latest published {@link ConfigSnapshot}, written by
+ * {@link LastKnownGoodWriter} after a publish while every source is read and read when {@link DynamicConfig} is
+ * initialized while a config source can not be read.
+ * <p>
+ * Layout, big-endian: a header of the magic number, the format version, the payload length and the CRC-32 of the
+ * payload as 4-byte integers, then the payload: the generation as an 8-byte integer, the number of entries as a 4-byte
+ * integer and every entry as a length-prefixed UTF-8 key followed by a length-prefixed UTF-8 value. The file is
+ * memory-mapped when it is read and is rejected as a whole if its length or checksum does not match. It is written to
+ * a temporary file in the same directory which is then moved over the previous one, a reader never sees a partially
+ * written file.
+ * </p>
+ *
+ * @author prarout
+ * @since 1.0.0
+ */
+final class SnapshotFile {
+
+    static final int MAGIC = 0x44435347;
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 16;
+
+    private final long generation;
+    private final Map<String, String> entries;
+
+    private SnapshotFile(long generation, Map<String, String> entries) {
+        this.generation = generation;
+        this.entries = entries;
+    }
+
+    /**
+     * Returns the generation of the snapshot written to the file, a generation of the process which wrote it.
+     *
+     * @return config generation
+     */
+    long generation() {
+        return generation;
+    }
+
+    /**
+     * Returns the entries of the snapshot written to the file.
+     *
+     * @return config entries
+     */
+    Map<String, String> entries() {
+        return entries;
+    }
+
+    /**
+     * Writes the entries of a snapshot. The files of a directory source not read yet are read and their content is
+     * kept by their values, the file holds every key a later startup may need. An entry whose file can not be read or
+     * changed since its scan is not written. Called by {@link LastKnownGoodWriter} off the reloader thread.
+     *
+     * @param file     file to write
+     * @param snapshot {@link ConfigSnapshot} to write
+     * @throws IOException if the file can not be written
+     */
+    static void write(Path file, ConfigSnapshot snapshot) throws IOException {
+        final ByteArrayOutputStream payload = new ByteArrayOutputStream(
+                (int) Math.min(Integer.MAX_VALUE - 8, snapshot.estimatedBytes()));
+        final DataOutputStream output = new DataOutputStream(payload);
+        output.writeLong(snapshot.getGeneration());
+        output.writeInt(0);
+        int count = 0;
+        for (int i = 0; i < snapshot.capacity(); i++) {
+            final String key = snapshot.keyAt(i);
+            final String value = key != null ? snapshot.valueAt(i) : null;
+            if (value != null) {
+                writeString(output, key);
+                writeString(output, value);
+                count++;
+            }
+        }
+        output.flush();
+        final ByteBuffer content = ByteBuffer.wrap(payload.toByteArray());
+        content.putInt(8, count);
+        final CRC32 crc = new CRC32();
+        crc.update(content.array(), 0, content.limit());
+        final ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        header.putInt(MAGIC).putInt(VERSION).putInt(content.limit()).putInt((int) crc.getValue());
+        header.flip();
+
+        final Path directory = file.toAbsolutePath().getParent();
+        final Path temporary = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                while (header.hasRemaining() || content.hasRemaining()) {
+                    channel.write(new ByteBuffer[]{header, content});
+                }
+                channel.force(true);
+            }
+            try {
+                Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * Reads a file written by {@link #write(Path, ConfigSnapshot)}.
+     *
+     * @param file file to read
+     * @return {@link SnapshotFile} of the entries
+     * @throws IOException if the file can not be read, is not a snapshot file or is corrupted
+     */
+    static SnapshotFile read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final long size = channel.size();
+            if (size < HEADER_BYTES || size > Integer.MAX_VALUE) {
+                throw new IOException("Snapshot file " + file + " has an invalid length: " + size + " bytes.");
+            }
+            final ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("File " + file + " is not a snapshot file.");
+            }
+            final int version = buffer.getInt();
+            if (version != VERSION) {
+                throw new IOException("Snapshot file " + file + " has the unsupported version " + version + ".");
+            }
+            final int length = buffer.getInt();
+            final int checksum = buffer.getInt();
+            if (length != size - HEADER_BYTES) {
+                throw new IOException("Snapshot file " + file + " is truncated: " + (size - HEADER_BYTES) +
+                        " of " + length + " bytes.");
+            }
+            final CRC32 crc = new CRC32();
+            crc.update(buffer.duplicate());
+            if ((int) crc.getValue() != checksum) {
+                throw new IOException("Snapshot file " + file + " is corrupted, the checksum does not match.");
+            }
+            final long generation = buffer.getLong();
+            final int count = buffer.getInt();
+            final Map<String, String> entries = new HashMap<>(Math.max(16, (int) (count / 0.75f) + 1));
+            for (int i = 0; i < count; i++) {
+                final String key = readString(buffer);
+                entries.put(key, readString(buffer));
+            }
+            return new SnapshotFile(generation, entries);
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new IOException("Snapshot file " + file + " is corrupted. " + e.getMessage(), e);
+        }
+    }
+
+    private static void writeString(DataOutputStream output, String value) throws IOException {
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        final int length = buffer.getInt();
+        if (length < 0 || length > buffer.remaining()) {
+            throw new IllegalArgumentException("Invalid string length " + length + ".");
+        }
+        final String value;
+        if (buffer.hasArray()) {
+            value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length,
+                    StandardCharsets.UTF_8);
+        } else {
+            final byte[] bytes = new byte[length];
+            buffer.duplicate().get(bytes);
+            value = new String(bytes, StandardCharsets.UTF_8);
+        }
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+}
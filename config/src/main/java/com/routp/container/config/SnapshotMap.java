@@ -0,0 +1,121 @@
+package com.routp.container.config;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * Read-only {@link Map} view of a {@link ConfigSnapshot}. Lookups and iteration read the hash table of the snapshot
+ * directly, nothing is copied when the view is obtained or iterated. Every mutating method throws
+ * {@link UnsupportedOperationException}. A value of a directory source is read on access, a file which can not be
+ * read has a null value.
+ *
+ * @author prarout
+ * @since 1.0.0
+ */
+final class SnapshotMap extends AbstractMap<String, String> {
+
+    private final ConfigSnapshot snapshot;
+    private final Set<Map.Entry<String, String>> entrySet = new EntrySet();
+
+    /**
+     * @param snapshot {@link ConfigSnapshot} backing the view
+     */
+    SnapshotMap(ConfigSnapshot snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    @Override
+    public int size() {
+        return snapshot.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return snapshot.size() == 0;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key instanceof String && snapshot.containsKey((String) key);
+    }
+
+    @Override
+    public String get(Object key) {
+        return key instanceof String ? snapshot.get((String) key) : null;
+    }
+
+    @Override
+    public String getOrDefault(Object key, String defaultValue) {
+        final String value = get(key);
+        return value != null ? value : defaultValue;
+    }
+
+    @Override
+    public void forEach(BiConsumer<? super String, ? super String> action) {
+        for (int i = 0; i < snapshot.capacity(); i++) {
+            final String key = snapshot.keyAt(i);
+            if (key != null) {
+                action.accept(key, snapshot.valueAt(i));
+            }
+        }
+    }
+
+    @Override
+    public Set<Map.Entry<String, String>> entrySet() {
+        return entrySet;
+    }
+
+    private final class EntrySet extends AbstractSet<Map.Entry<String, String>> {
+
+        @Override
+        public int size() {
+            return snapshot.size();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Map.Entry)) {
+                return false;
+            }
+            final Map.Entry<?, ?> entry = (Map.Entry<?, ?>) o;
+            final Object key = entry.getKey();
+            return containsKey(key) && Objects.equals(get(key), entry.getValue());
+        }
+
+        @Override
+        public Iterator<Map.Entry<String, String>> iterator() {
+            return new Iterator<Map.Entry<String, String>>() {
+                private int next = advance(0);
+
+                @Override
+                public boolean hasNext() {
+                    return next < snapshot.capacity();
+                }
+
+                @Override
+                public Map.Entry<String, String> next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    final int index = next;
+                    next = advance(index + 1);
+                    return new AbstractMap.SimpleImmutableEntry<>(snapshot.keyAt(index), snapshot.valueAt(index));
+                }
+            };
+        }
+
+        private int advance(int from) {
+            int index = from;
+            while (index < snapshot.capacity() && snapshot.keyAt(index) == null) {
+                index++;
+            }
+            return index;
+        }
+    }
+}
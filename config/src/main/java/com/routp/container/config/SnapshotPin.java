@@ -0,0 +1,88 @@
+package com.routp.container.config;
+
+/**
+ * Binds a {@link ConfigSnapshot} to the current thread: until the pin is closed every getter of {@link DynamicConfig}
+ * and every {@link ConfigKey} read on this thread reads the pinned generation, reloads published meanwhile are seen
+ * after the pin is closed. Pins nest, closing a pin restores the one it replaced. A pin must be closed by the thread
+ * which created it, typically with try-with-resources around the handling of one request: <br>
+ * try (SnapshotPin pin = DynamicConfig.pin()) { <br>
+ * &nbsp;&nbsp;&nbsp;&nbsp;String url = DynamicConfig.getValue("db.url"); <br>
+ * &nbsp;&nbsp;&nbsp;&nbsp;int size = DynamicConfig.getInt("db.pool.size", 10); <br>
+ * }
+ * <p>
+ * The pin state is confined to its thread. Until the first pin of the process is taken a getter does not look up the
+ * thread-local pin at all, it then costs one thread-local lookup. No thread writes state shared with the other threads
+ * when it pins or unpins.
+ * </p>
+ *
+ * @author prarout
+ * @since 1.0.0
+ */
+public final class SnapshotPin implements AutoCloseable {
+
+    private static final ThreadLocal<ConfigSnapshot> pinnedSnapshot = new ThreadLocal<>();
+    // Set once by the first pin and never cleared. Deliberately not volatile: a thread only looks up its own pin and
+    // always sees its own write, another thread seeing it late has no pin to find.
+    private static boolean pinsTaken;
+
+    private final ConfigSnapshot snapshot;
+    private final ConfigSnapshot previous;
+    private final Thread owner;
+    private boolean closed;
+
+    SnapshotPin(ConfigSnapshot snapshot) {
+        this.snapshot = snapshot;
+        this.previous = pinnedSnapshot.get();
+        this.owner = Thread.currentThread();
+        pinnedSnapshot.set(snapshot);
+        if (!pinsTaken) {
+            pinsTaken = true;
+        }
+    }
+
+    /**
+     * Returns the snapshot pinned to the current thread.
+     *
+     * @return pinned {@link ConfigSnapshot}, null if the thread has no pin
+     */
+    static ConfigSnapshot pinned() {
+        return pinsTaken ? pinnedSnapshot.get() : null;
+    }
+
+    /**
+     * Returns the snapshot pinned by this pin.
+     *
+     * @return pinned {@link ConfigSnapshot}
+     */
+    public ConfigSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Unbinds the snapshot from the current thread and restores the pin this pin replaced. Closing a closed pin does
+     * nothing.
+     *
+     * @throws IllegalStateException if called by another thread than the one which created the pin
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        if (Thread.currentThread() != owner) {
+            throw new IllegalStateException("Snapshot pin can only be closed by the thread " + owner.getName() +
+                    " which created it.");
+        }
+        closed = true;
+        if (previous != null) {
+            pinnedSnapshot.set(previous);
+        } else {
+            pinnedSnapshot.remove();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "SnapshotPin{generation: " + snapshot.getGeneration() + ", thread: " + owner.getName() + "}";
+    }
+}
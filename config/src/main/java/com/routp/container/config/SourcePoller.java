@@ -0,0 +1,211 @@
+package com.routp.container.config;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Polls the config sources by comparing file metadata instead of contents. A regular Helidon polling strategy makes
+ * the source re-read and digest the file on every tick, this poller ticks a source only when the modification time,
+ * size, file key (inode) or resolved symbolic link target of the file changed. A directory source is compared by the
+ * metadata of its files. Every poll of an unchanged source is counted as a skipped read.
+ * <p>
+ * A file modified within {@link #RACY_WINDOW_MILLIS} before the previous poll is re-read even when its metadata did
+ * not change, a second write of the same size within the timestamp granularity of the file system would otherwise go
+ * unnoticed. The content is read at most for the duration of the window after such a write.
+ * </p>
+ * All the sources are polled by one task on the file watcher thread.
+ *
+ * @author prarout
+ * @since 1.0.0
+ */
+final class SourcePoller implements Closeable {
+    private static final Logger logger = Logger.getLogger(SourcePoller.class.getName());
+
+    // Coarsest timestamp granularity of the common file systems (FAT)
+    static final long RACY_WINDOW_MILLIS = 2000;
+
+    private final List<PolledSource> sources = new ArrayList<>();
+    private final LongAdder skippedReads = new LongAdder();
+    private ScheduledFuture<?> pollTask;
+
+    /**
+     * Creates the poller, no polling is scheduled until {@link #start(ScheduledExecutorService, long)}.
+     */
+    SourcePoller() {
+    }
+
+    /**
+     * Registers a source file or directory and returns its polling strategy.
+     *
+     * @param source config source file or directory
+     * @return {@link SourceTicks} ticking when the metadata of the source changed
+     */
+    SourceTicks register(Path source) {
+        final PolledSource polledSource = new PolledSource(source.toAbsolutePath().normalize());
+        polledSource.stat = stat(polledSource.path());
+        polledSource.polledMillis = System.currentTimeMillis();
+        sources.add(polledSource);
+        return polledSource;
+    }
+
+    /**
+     * Starts polling the registered sources until {@link #close()}.
+     *
+     * @param scheduler    scheduler providing the polling thread
+     * @param periodMillis delay between two polls in milliseconds
+     */
+    void start(ScheduledExecutorService scheduler, long periodMillis) {
+        pollTask = scheduler.scheduleWithFixedDelay(this::poll, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Returns the number of polls which did not read a source as its metadata did not change.
+     *
+     * @return number of skipped reads
+     */
+    long getSkippedReads() {
+        return skippedReads.sum();
+    }
+
+    /**
+     * Stops polling, the ticks of the sources are completed.
+     */
+    @Override
+    public void close() {
+        if (pollTask != null) {
+            pollTask.cancel(false);
+        }
+        for (PolledSource source : sources) {
+            source.close();
+        }
+    }
+
+    /**
+     * Compares the metadata of every source with the previous poll.
+     */
+    void poll() {
+        for (PolledSource source : sources) {
+            try {
+                final long now = System.currentTimeMillis();
+                final List<Stat> stat = stat(source.path());
+                final boolean changed = !stat.equals(source.stat) || isRacy(source.stat, source.polledMillis);
+                source.stat = stat;
+                source.polledMillis = now;
+                if (changed) {
+                    source.tick();
+                } else {
+                    skippedReads.increment();
+                }
+            } catch (RuntimeException e) {
+                logger.log(Level.WARNING, "Polling " + source.path() + " failed. " + e.getMessage(), e);
+            }
+        }
+    }
+
+    private static boolean isRacy(List<Stat> stat, long polledMillis) {
+        for (Stat fileStat : stat) {
+            if (fileStat.modifiedMillis >= polledMillis - RACY_WINDOW_MILLIS) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Reads the metadata of a file, or of the files of a directory. No entry is returned for a missing file.
+     */
+    private static List<Stat> stat(Path path) {
+        final List<Stat> stat = new ArrayList<>(1);
+        try {
+            final BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            if (attributes.isDirectory()) {
+                try (DirectoryStream<Path> files = Files.newDirectoryStream(path)) {
+                    for (Path file : files) {
+                        final Stat fileStat = statFile(file);
+                        if (fileStat != null) {
+                            stat.add(fileStat);
+                        }
+                    }
+                }
+            } else {
+                stat.add(new Stat(path, attributes));
+            }
+        } catch (NoSuchFileException e) {
+            // A missing source is a change once it is created
+        } catch (IOException e) {
+            logger.fine("Source " + path + " metadata can not be read. " + e.getMessage());
+        }
+        return stat;
+    }
+
+    private static Stat statFile(Path file) throws IOException {
+        try {
+            return new Stat(file, Files.readAttributes(file, BasicFileAttributes.class));
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Ticks of one source with the metadata of its previous poll, only accessed by the polling thread.
+     */
+    private static final class PolledSource extends SourceTicks {
+        private List<Stat> stat;
+        private long polledMillis;
+
+        private PolledSource(Path path) {
+            super(path);
+        }
+    }
+
+    /**
+     * Metadata of one file, symbolic links are followed.
+     */
+    private static final class Stat {
+        private final Path path;
+        private final Path realPath;
+        private final long modifiedMillis;
+        private final long size;
+        private final Object fileKey;
+
+        private Stat(Path path, BasicFileAttributes attributes) throws IOException {
+            this.path = path;
+            this.realPath = Files.isSymbolicLink(path) ? path.toRealPath() : path;
+            this.modifiedMillis = attributes.lastModifiedTime().toMillis();
+            this.size = attributes.size();
+            this.fileKey = attributes.fileKey();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Stat)) {
+                return false;
+            }
+            final Stat stat = (Stat) o;
+            return modifiedMillis == stat.modifiedMillis && size == stat.size && path.equals(stat.path)
+                    && realPath.equals(stat.realPath) && Objects.equals(fileKey, stat.fileKey);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(path, modifiedMillis, size);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.routp.container.config;
+
+import java.nio.file.Path;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import io.helidon.common.reactive.Flow;
+import io.helidon.config.spi.PollingStrategy;
+
+/**
+ * {@link PollingStrategy} of one config source ticked by {@link SourceWatcher} or {@link SourcePoller}. Ticks are
+ * delivered on the ticking thread and the source is reloaded on the executor of {@link #onTick(Executor, Runnable)},
+ * or by Helidon on its own changes executor. A tick is coalesced while the reload of the previous tick is queued, as
+ * that reload reads the latest content anyway. Helidon requests the next tick only once its reload is over, a tick
+ * received meanwhile is kept and delivered on that request so that the change it stands for is not lost.
+ * <p>
+ * A tick does not read the source, the ticking thread serves every source and a large or slow one would delay the
+ * others. A tick of unchanged content is suppressed once the source is read on the reload executor: by the fingerprint
+ * of {@link PropertiesSource}, or by the comparison of the reloaded layer and merged config in {@link DynamicConfig}.
+ * </p>
+ *
+ * @author prarout
+ * @since 1.0.0
+ */
+class SourceTicks implements PollingStrategy {
+    private static final Logger logger = Logger.getLogger(SourceTicks.class.getName());
+
+    private final Path path;
+    private final TickPublisher<PollingEvent> ticks = new TickPublisher<>();
+
+    /**
+     * @param path absolute path of the config source file or directory
+     */
+    SourceTicks(Path path) {
+        this.path = path;
+    }
+
+    /**
+     * Returns the path of the source.
+     *
+     * @return absolute path of the config source file or directory
+     */
+    Path path() {
+        return path;
+    }
+
+    /**
+     * Signals the subscribers to reload the source.
+     */
+    void tick() {
+        ConfigEvents.watch(path, ConfigEvents.RECEIVED);
+        if (logger.isLoggable(Level.FINE)) {
+            logger.fine("Change event on " + path);
+        }
+        ticks.submit(PollingEvent.now());
+    }
+
+    /**
+     * Subscribes an action run on an executor on every tick, the ticking thread only hands it off and goes on serving
+     * the other sources. Ticks received while the action is queued and not started yet are coalesced into it, the
+     * action reads the latest content anyway.
+     *
+     * @param executor executor the action runs on
+     * @param action   action run on every tick
+     */
+    void onTick(Executor executor, Runnable action) {
+        final AtomicBoolean queued = new AtomicBoolean();
+        final Runnable queuedAction = () -> {
+            queued.set(false);
+            try {
+                action.run();
+            } catch (RuntimeException e) {
+                logger.log(Level.SEVERE, "Reload of " + path + " failed on change event. " + e.getMessage(), e);
+            }
+        };
+        ticks.subscribe(new Flow.Subscriber<PollingEvent>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(PollingEvent event) {
+                if (!queued.compareAndSet(false, true)) {
+                    return;
+                }
+                try {
+                    executor.execute(queuedAction);
+                } catch (RejectedExecutionException e) {
+                    // Terminated, the tick is dropped
+                    queued.set(false);
+                }
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                logger.log(Level.WARNING, "Change events of " + path + " failed. " + throwable.getMessage(),
+                        throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                // Closed, no more ticks
+            }
+        });
+    }
+
+    /**
+     * Completes the ticks, the source is not reloaded anymore.
+     */
+    void close() {
+        ticks.close();
+    }
+
+    @Override
+    public Flow.Publisher<PollingEvent> ticks() {
+        return ticks;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "{path: " + path + "}";
+    }
+}
@@ -0,0 +1,190 @@
+package com.routp.container.config;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Watches every config source on one {@link WatchService} drained by one event loop thread. Helidon's
+ * {@code PollingStrategies.watch} creates a watch service and a thread per source, with many mounted config files
+ * most of them are idle.
+ * <p>
+ * A file source is watched through its parent directory. The parent directory of the resolved file is watched as well
+ * when the file is a symbolic link into another directory. Events on the file name and on the names starting with
+ * {@code ..} trigger the source, the latter are the atomic symbolic link swaps of a mounted Kubernetes ConfigMap or
+ * Secret ({@code ..data -> ..2020_01_01_00_00_00.000}). A directory source is triggered by any event in the
+ * directory.
+ * </p>
+ * Each registered source gets a {@link SourceTicks} polling strategy ticked on the event loop thread, the source is
+ * reloaded on the reloader thread or on the changes executor of Helidon so the event loop never waits for a reload.
+ *
+ * @author prarout
+ * @since 1.0.0
+ */
+final class SourceWatcher implements Closeable {
+    private static final Logger logger = Logger.getLogger(SourceWatcher.class.getName());
+
+    private static final String SYMLINK_SWAP_PREFIX = "..";
+
+    private final WatchService watchService;
+    private final Map<WatchKey, Path> watchedDirectories = new ConcurrentHashMap<>();
+    private final Map<Path, List<WatchedSource>> sourcesByDirectory = new ConcurrentHashMap<>();
+
+    /**
+     * Creates the watcher, no thread is started until {@link #start(ExecutorService)}.
+     *
+     * @throws UncheckedIOException if the watch service can not be created
+     */
+    SourceWatcher() {
+        try {
+            this.watchService = FileSystems.getDefault().newWatchService();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Watch service creation failed. " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Registers a source file or directory and returns its polling strategy.
+     *
+     * @param source config source file or directory
+     * @return {@link SourceTicks} ticking on every change of the source
+     * @throws UncheckedIOException if a directory can not be registered with the watch service
+     */
+    SourceTicks register(Path source) {
+        final Path path = source.toAbsolutePath().normalize();
+        final WatchedSource watchedSource = new WatchedSource(path);
+        if (Files.isDirectory(path)) {
+            watch(path, null, watchedSource);
+        } else {
+            watch(path.getParent(), path.getFileName(), watchedSource);
+            try {
+                final Path realPath = path.toRealPath();
+                if (!realPath.getParent().equals(path.getParent())) {
+                    watch(realPath.getParent(), realPath.getFileName(), watchedSource);
+                }
+            } catch (IOException e) {
+                // A missing file is watched through its parent directory until it is created
+                logger.fine("Source " + path + " can not be resolved. " + e.getMessage());
+            }
+        }
+        return watchedSource;
+    }
+
+    /**
+     * Starts the event loop on the executor, it runs until {@link #close()}.
+     *
+     * @param executor executor providing the event loop thread
+     */
+    void start(ExecutorService executor) {
+        executor.execute(this::run);
+    }
+
+    /**
+     * Closes the watch service, the event loop exits and the tick publishers of the sources are completed.
+     */
+    @Override
+    public void close() {
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Watch service close failed. " + e.getMessage(), e);
+        }
+        for (List<WatchedSource> watchedSources : sourcesByDirectory.values()) {
+            for (WatchedSource watchedSource : watchedSources) {
+                watchedSource.close();
+            }
+        }
+    }
+
+    private void watch(Path directory, Path fileName, WatchedSource watchedSource) {
+        try {
+            final WatchKey key = directory.register(watchService, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY);
+            watchedDirectories.put(key, directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Directory " + directory + " can not be watched. " + e.getMessage(), e);
+        }
+        watchedSource.fileNames.add(fileName);
+        final List<WatchedSource> watchedSources = sourcesByDirectory.computeIfAbsent(directory,
+                dir -> new CopyOnWriteArrayList<>());
+        if (!watchedSources.contains(watchedSource)) {
+            watchedSources.add(watchedSource);
+        }
+    }
+
+    private void run() {
+        logger.fine("Watching " + watchedDirectories.size() + " directories for config source changes.");
+        try {
+            while (true) {
+                final WatchKey key = watchService.take();
+                final Path directory = watchedDirectories.get(key);
+                if (directory != null) {
+                    final List<WatchedSource> triggered = new ArrayList<>();
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        collectTriggered(directory, event, triggered);
+                    }
+                    // One tick per source even if one change produced several events
+                    for (WatchedSource watchedSource : triggered) {
+                        watchedSource.tick();
+                    }
+                }
+                if (!key.reset()) {
+                    logger.warning("Directory " + directory + " is not accessible anymore and is not watched.");
+                    watchedDirectories.remove(key);
+                }
+            }
+        } catch (ClosedWatchServiceException e) {
+            logger.fine("Watch service closed.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void collectTriggered(Path directory, WatchEvent<?> event, List<WatchedSource> triggered) {
+        final Object context = event.context();
+        final String name = context instanceof Path ? context.toString() : null;
+        for (WatchedSource watchedSource : sourcesByDirectory.getOrDefault(directory,
+                Collections.emptyList())) {
+            if (!triggered.contains(watchedSource) && (event.kind() == OVERFLOW || name == null
+                    || name.startsWith(SYMLINK_SWAP_PREFIX) || watchedSource.matches((Path) context))) {
+                triggered.add(watchedSource);
+            }
+        }
+    }
+
+    /**
+     * Ticks of one source with the file names triggering it.
+     */
+    private static final class WatchedSource extends SourceTicks {
+        // File names watched in their directories, null for a directory source
+        private final List<Path> fileNames = new CopyOnWriteArrayList<>();
+
+        private WatchedSource(Path path) {
+            super(path);
+        }
+
+        private boolean matches(Path fileName) {
+            return fileNames.contains(null) || fileNames.contains(fileName);
+        }
+    }
+}
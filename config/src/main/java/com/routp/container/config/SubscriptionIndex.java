@@ -0,0 +1,102 @@
+package com.routp.container.config;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+
+/**
+ * A character trie of the keys and key prefixes handlers are subscribed to. Subscribers are identified by their
+ * registration index. Matching the changed keys of a reload walks each changed key once through the trie, so the
+ * cost depends on the number and length of the changed keys and not on the number of handlers.
+ * <p>
+ * Supported subscriptions: <br>
+ * {@code db.pool.size} - exact key <br>
+ * {@code db.pool.*} - every key starting with {@code db.pool.} <br>
+ * {@code *} - every key
+ * </p>
+ * Instances are built once at initialization and only read afterwards.
+ *
+ * @author prarout
+ * @since 1.0.0
+ */
+final class SubscriptionIndex {
+
+    private static final String WILDCARD = "*";
+
+    private final Node root = new Node();
+
+    /**
+     * Subscribes a subscriber to an exact key or, when the key ends with {@code *}, to a key prefix.
+     *
+     * @param key        key name or key prefix ending with {@code *}
+     * @param subscriber registration index of the subscriber
+     */
+    void subscribe(String key, int subscriber) {
+        final boolean prefix = key.endsWith(WILDCARD);
+        final String path = prefix ? key.substring(0, key.length() - 1) : key;
+        Node node = root;
+        for (int i = 0; i < path.length(); i++) {
+            node = node.childOrCreate(path.charAt(i));
+        }
+        if (prefix) {
+            node.prefixSubscribers.set(subscriber);
+        } else {
+            node.exactSubscribers.set(subscriber);
+        }
+    }
+
+    /**
+     * Returns the subscribers of any of the specified keys.
+     *
+     * @param keys changed keys
+     * @return {@link BitSet} of matching registration indexes
+     */
+    BitSet match(Collection<String> keys) {
+        final BitSet matched = new BitSet();
+        for (String key : keys) {
+            Node node = root;
+            matched.or(node.prefixSubscribers);
+            for (int i = 0; i < key.length() && node != null; i++) {
+                node = node.child(key.charAt(i));
+                if (node != null) {
+                    matched.or(node.prefixSubscribers);
+                }
+            }
+            if (node != null) {
+                matched.or(node.exactSubscribers);
+            }
+        }
+        return matched;
+    }
+
+    /**
+     * Trie node, children are kept in small parallel arrays as the fan-out of config key characters is low.
+     */
+    private static final class Node {
+        private final BitSet prefixSubscribers = new BitSet();
+        private final BitSet exactSubscribers = new BitSet();
+        private char[] labels = new char[0];
+        private Node[] children = new Node[0];
+
+        private Node child(char label) {
+            for (int i = 0; i < labels.length; i++) {
+                if (labels[i] == label) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+
+        private Node childOrCreate(char label) {
+            Node child = child(label);
+            if (child == null) {
+                child = new Node();
+                labels = Arrays.copyOf(labels, labels.length + 1);
+                children = Arrays.copyOf(children, children.length + 1);
+                labels[labels.length - 1] = label;
+                children[children.length - 1] = child;
+            }
+            return child;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.routp.container.config;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.helidon.common.reactive.Flow;
+
+/**
+ * Publisher of the ticks of a config source, delivered synchronously on the thread submitting them. An item submitted
+ * to a subscriber without outstanding demand is not buffered: only the latest such item is kept and delivered on the
+ * next request of the subscriber, on the requesting thread, and stands for every tick the subscriber missed.
+ *
+ * @param <T> type of the items
+ * @author prarout
+ * @since 1.0.0
+ */
+final class TickPublisher<T> implements Flow.Publisher<T> {
+
+    private final List<TickSubscription> subscriptions = new CopyOnWriteArrayList<>();
+    private volatile boolean closed;
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super T> subscriber) {
+        final TickSubscription subscription = new TickSubscription(subscriber);
+        subscriptions.add(subscription);
+        subscriber.onSubscribe(subscription);
+        if (closed) {
+            subscription.complete();
+        }
+    }
+
+    /**
+     * Delivers an item to every subscriber with outstanding demand on the calling thread, the other subscribers keep
+     * it until their next request.
+     *
+     * @param item item to deliver
+     * @return number of subscribers the item was delivered to
+     */
+    int submit(T item) {
+        int delivered = 0;
+        for (TickSubscription subscription : subscriptions) {
+            if (subscription.offer(item)) {
+                delivered++;
+            }
+        }
+        return delivered;
+    }
+
+    /**
+     * Completes every subscriber, the items submitted afterwards are dropped.
+     */
+    void close() {
+        closed = true;
+        for (TickSubscription subscription : subscriptions) {
+            subscription.complete();
+        }
+    }
+
+    /**
+     * Subscription of one subscriber, its signals are serialized by the subscription monitor.
+     */
+    private final class TickSubscription implements Flow.Subscription {
+        private final Flow.Subscriber<? super T> subscriber;
+        private final AtomicLong requested = new AtomicLong();
+        private volatile boolean cancelled;
+        // Latest item submitted without demand, guarded by the subscription monitor
+        private T missed;
+
+        private TickSubscription(Flow.Subscriber<? super T> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                cancel();
+                subscriber.onError(new IllegalArgumentException("Requested " + n + " items, must be positive."));
+                return;
+            }
+            requested.accumulateAndGet(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE
+                    : current + added);
+            deliverMissed();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            subscriptions.remove(this);
+        }
+
+        private synchronized boolean offer(T item) {
+            if (cancelled) {
+                return false;
+            }
+            if (!claim()) {
+                missed = item;
+                return false;
+            }
+            missed = null;
+            deliver(item);
+            return true;
+        }
+
+        private synchronized void deliverMissed() {
+            if (missed != null && !cancelled && claim()) {
+                final T item = missed;
+                // Cleared first, the subscriber may request again from onNext
+                missed = null;
+                deliver(item);
+            }
+        }
+
+        private void deliver(T item) {
+            try {
+                subscriber.onNext(item);
+            } catch (RuntimeException e) {
+                cancel();
+                subscriber.onError(e);
+            }
+        }
+
+        private boolean claim() {
+            while (true) {
+                final long current = requested.get();
+                if (current == 0) {
+                    return false;
+                }
+                if (current == Long.MAX_VALUE || requested.compareAndSet(current, current - 1)) {
+                    return true;
+                }
+            }
+        }
+
+        private synchronized void complete() {
+            if (!cancelled) {
+                cancel();
+                subscriber.onComplete();
+            }
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.routp.container.config;
+
+import java.util.Collections;
+
+import io.helidon.config.Config;
+import io.helidon.config.ConfigMappers;
+import io.helidon.config.ConfigMappingException;
+import io.helidon.config.ConfigSources;
+
+/**
+ * Converts raw config values of a {@link ConfigSnapshot} to the requested type. The common types are converted
+ * directly using the same rules as Helidon's built-in mappers; any other type is delegated to Helidon's mapper
+ * manager so the supported set of types stays unchanged.
+ *
+ * @author prarout
+ * @since 1.0.0
+ */
+final class ValueParser {
+
+    private static final String VALUE_KEY = "value";
+
+    /**
+     * Can not be instantiated
+     */
+    private ValueParser() {
+    }
+
+    /**
+     * Converts the raw value of a key to the specified type.
+     *
+     * @param key      key name in the config, used for error reporting
+     * @param rawValue raw value of the key
+     * @param type     type of value
+     * @param <T>      class type
+     * @return converted value
+     * @throws ConfigMappingException if the raw value can not be converted to the specified type
+     */
+    @SuppressWarnings("unchecked")
+    static <T> T parse(final String key, final String rawValue, final Class<T> type) {
+        if (type == String.class || type == Object.class) {
+            return (T) rawValue;
+        }
+        try {
+            if (type == Integer.class) {
+                return (T) Integer.valueOf(Integer.parseInt(rawValue));
+            } else if (type == Long.class) {
+                return (T) Long.valueOf(Long.parseLong(rawValue));
+            } else if (type == Double.class) {
+                return (T) Double.valueOf(Double.parseDouble(rawValue));
+            } else if (type == Boolean.class) {
+                return (T) Boolean.valueOf(Boolean.parseBoolean(rawValue));
+            } else if (type == Float.class) {
+                return (T) ConfigMappers.toFloat(rawValue);
+            } else if (type == Short.class) {
+                return (T) ConfigMappers.toShort(rawValue);
+            } else if (type == Byte.class) {
+                return (T) ConfigMappers.toByte(rawValue);
+            }
+        } catch (RuntimeException e) {
+            throw new ConfigMappingException(Config.Key.create(key), type,
+                    "Cannot convert value '" + rawValue + "' to " + type.getName(), e);
+        }
+        return Config.builder(ConfigSources.create(Collections.singletonMap(VALUE_KEY, rawValue)))
+                .disableEnvironmentVariablesSource()
+                .disableSystemPropertiesSource()
+                .disableCaching()
+                .build()
+                .get(VALUE_KEY)
+                .as(type)
+                .get();
+    }
+}
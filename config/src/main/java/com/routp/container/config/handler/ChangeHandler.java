@@ -2,14 +2,22 @@ package com.routp.container.config.handler;
 
 import java.util.Map;
 
+import com.routp.container.config.ConfigChange;
+
 /**
- * Handler interface
+ * Handler interface receiving the whole config on every change event. Adapts {@link ConfigChangeHandler} for the
+ * handlers which do not need the change set, the map passed to {@link #execute(Map)} is shared by every handler of
+ * the same change event.
  *
  * @author prarout
  * @since 1.0.0
  */
 @FunctionalInterface
-public interface ChangeHandler {
+public interface ChangeHandler extends ConfigChangeHandler {
     void execute(Map<String, String> configMap);
 
+    @Override
+    default void onChange(ConfigChange change) {
+        execute(change.getConfig());
+    }
 }
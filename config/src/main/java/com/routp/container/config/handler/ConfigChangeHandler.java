@@ -0,0 +1,15 @@
+package com.routp.container.config.handler;
+
+import com.routp.container.config.ConfigChange;
+
+/**
+ * Handler interface receiving the change set of a reload
+ *
+ * @author prarout
+ * @since 1.0.0
+ */
+@FunctionalInterface
+public interface ConfigChangeHandler {
+    void onChange(ConfigChange change);
+
+}
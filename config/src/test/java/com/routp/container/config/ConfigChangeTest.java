@@ -0,0 +1,65 @@
+package com.routp.container.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit test class for {@link ConfigChange}
+ *
+ * @author prarout
+ * @since 1.0.0
+ */
+public class ConfigChangeTest {
+
+    /**
+     * Added, removed and modified keys between two snapshots
+     */
+    @Test
+    public void testBetween() {
+        final Map<String, String> previousEntries = new HashMap<>();
+        previousEntries.put("test.server.url", "http://abc.xyz");
+        previousEntries.put("test.account", "demo");
+        previousEntries.put("test.timeout", "10");
+        final Map<String, String> currentEntries = new HashMap<>();
+        currentEntries.put("test.account", "sales");
+        currentEntries.put("test.timeout", "10");
+        currentEntries.put("log.level", "DEBUG");
+
+        final ConfigChange change = ConfigChange.between(new ConfigSnapshot(1L, previousEntries),
+                new ConfigSnapshot(2L, currentEntries));
+        assertEquals(2L, change.getGeneration());
+        assertEquals(new HashSet<>(Arrays.asList("log.level")), change.getAddedKeys());
+        assertEquals(new HashSet<>(Arrays.asList("test.server.url")), change.getRemovedKeys());
+        assertEquals(new HashSet<>(Arrays.asList("test.account")), change.getModifiedKeys());
+        assertEquals(3, change.getChangedKeys().size());
+        assertTrue(change.isChanged("test.account"));
+        assertFalse(change.isChanged("test.timeout"));
+        assertEquals("demo", change.getOldValue("test.account"));
+        assertEquals("sales", change.getNewValue("test.account"));
+        assertNull(change.getNewValue("test.server.url"));
+        assertEquals(currentEntries, change.getConfig());
+        assertSame(change.getConfig(), change.getConfig());
+    }
+
+    /**
+     * Identical snapshots produce an empty change
+     */
+    @Test
+    public void testEmpty() {
+        final Map<String, String> entries = new HashMap<>();
+        entries.put("test.version", "V2");
+        final ConfigChange change = ConfigChange.between(new ConfigSnapshot(1L, entries),
+                new ConfigSnapshot(2L, entries));
+        assertTrue(change.isEmpty());
+    }
+}
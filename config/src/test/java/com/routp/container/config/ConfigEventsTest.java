@@ -0,0 +1,121 @@
+package com.routp.container.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Unit test class for {@link ConfigEvents}
+ *
+ * @author prarout
+ * @since 1.0.0
+ */
+public class ConfigEventsTest {
+
+    private static final String RELOAD = "com.routp.container.config.ConfigReload";
+    private static final String HANDLER = "com.routp.container.config.HandlerInvocation";
+    private static final String WATCH = "com.routp.container.config.WatchEvent";
+
+    /**
+     * Enabled events are recorded with their fields, a failing handler is recorded as failed
+     */
+    @Test
+    public void testEnabledEvents() throws Exception {
+        final CountDownLatch invoked = new CountDownLatch(2);
+        final HandlerRegistration registration = new HandlerRegistration(change -> {
+            invoked.countDown();
+            if (change.getGeneration() == 2L) {
+                throw new IllegalStateException("Failing handler");
+            }
+        });
+        registration.subscribe();
+        final HandlerDispatcher dispatcher = new HandlerDispatcher(Collections.singletonList(registration), null, 0);
+        final List<RecordedEvent> events;
+        try (Recording recording = new Recording()) {
+            recording.enable(RELOAD);
+            recording.enable(HANDLER);
+            recording.enable(WATCH);
+            recording.start();
+            ConfigEvents.watch("/config/app.properties", ConfigEvents.RECEIVED);
+            final Object reload = ConfigEvents.beginReload();
+            ConfigEvents.commitReload(reload, "[/config/app.properties]", 7L, 3, true);
+            dispatcher.dispatch(change(1L, 2L));
+            // The handler runs one change at a time, the event of the first change is committed once the second runs
+            dispatcher.dispatch(change(2L, 3L));
+            assertTrue(invoked.await(5, TimeUnit.SECONDS));
+            recording.stop();
+            events = read(recording);
+        } finally {
+            dispatcher.shutdown();
+        }
+
+        // Sources of an initialized DynamicConfig of other tests may emit events as well
+        final RecordedEvent watch = events.stream().filter(event -> WATCH.equals(event.getEventType().getName())
+                && "/config/app.properties".equals(event.getString("source"))).findFirst()
+                .orElseThrow(AssertionError::new);
+        assertEquals(ConfigEvents.RECEIVED, watch.getString("outcome"));
+
+        final RecordedEvent reload = events.stream().filter(event -> RELOAD.equals(event.getEventType().getName())
+                && event.getLong("generation") == 7L).findFirst().orElseThrow(AssertionError::new);
+        assertEquals("[/config/app.properties]", reload.getString("sources"));
+        assertEquals(7L, reload.getLong("generation"));
+        assertEquals(3, reload.getInt("changedKeys"));
+        assertTrue(reload.getBoolean("published"));
+
+        final RecordedEvent handler = events.stream().filter(event -> HANDLER.equals(event.getEventType().getName())
+                && event.getLong("generation") == 2L).findFirst().orElseThrow(AssertionError::new);
+        assertEquals(registration.getName(), handler.getString("handler"));
+        assertEquals(ConfigEvents.FAILED, handler.getString("outcome"));
+    }
+
+    /**
+     * The events are not recorded unless they are enabled
+     */
+    @Test
+    public void testDisabledByDefault() throws Exception {
+        final List<RecordedEvent> events;
+        try (Recording recording = new Recording()) {
+            recording.start();
+            ConfigEvents.watch("/config/app.properties", ConfigEvents.SUPPRESSED);
+            assertEquals(null, ConfigEvents.beginReload());
+            assertEquals(null, ConfigEvents.beginHandlerInvocation());
+            ConfigEvents.commitReload(null, "[]", 1L, 0, false);
+            recording.stop();
+            events = read(recording);
+        }
+        assertFalse(events.stream().anyMatch(event -> event.getEventType().getName().startsWith(
+                "com.routp.container.config.")));
+    }
+
+    private static List<RecordedEvent> read(Recording recording) throws Exception {
+        final Path file = Files.createTempFile("config-events", ".jfr");
+        try {
+            recording.dump(file);
+            return RecordingFile.readAllEvents(file);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static ConfigChange change(long previous, long current) {
+        final Map<String, String> entries = new HashMap<>();
+        entries.put("test.generation", String.valueOf(current));
+        return ConfigChange.between(new ConfigSnapshot(previous, Collections.emptyMap()),
+                new ConfigSnapshot(current, entries));
+    }
+}
@@ -0,0 +1,46 @@
+package com.routp.container.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit test class for {@link ConfigLayers}
+ *
+ * @author prarout
+ * @since 1.0.0
+ */
+public class ConfigLayersTest {
+
+    /**
+     * Layers are overlaid in priority order and an equal layer is not an update
+     */
+    @Test
+    public void testMerge() {
+        final ConfigLayers layers = new ConfigLayers(Arrays.asList("override.properties", "base.properties"));
+        final Map<String, String> base = new HashMap<>();
+        base.put("test.app", "demo");
+        base.put("test.version", "1.0");
+        final Map<String, String> override = new HashMap<>();
+        override.put("test.app", "sales");
+        assertTrue(layers.update(1, base));
+        assertTrue(layers.update(0, override));
+
+        Map<String, Object> merged = layers.merge();
+        assertEquals(2, merged.size());
+        assertEquals("sales", merged.get("test.app"));
+        assertEquals("1.0", merged.get("test.version"));
+
+        assertFalse(layers.update(1, new HashMap<>(base)));
+        override.clear();
+        assertTrue(layers.update(0, override));
+        merged = layers.merge();
+        assertEquals("demo", merged.get("test.app"));
+    }
+}
@@ -0,0 +1,134 @@
+package com.routp.container.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.junit.jupiter.api.Test;
+
+import com.routp.container.config.handler.ConfigChangeHandler;
+
+/**
+ * Unit test class for {@link ConfigMetrics}
+ *
+ * @author prarout
+ * @since 1.0.0
+ */
+public class ConfigMetricsTest {
+
+    /**
+     * Reads, source timestamps and the invocations and failures of every handler are counted
+     */
+    @Test
+    public void testMetrics() throws Exception {
+        final ConfigChangeHandler failing = change -> {
+            throw new IllegalStateException("Failing handler");
+        };
+        final ConfigChangeHandler counting = change -> {
+        };
+        final HandlerDispatcher dispatcher = new HandlerDispatcher(
+                Arrays.asList(registration(failing), registration(counting)), null, 0);
+        try {
+            final ConfigMetrics metrics = new ConfigMetrics(Arrays.asList("first", "second"), new LongAdder(),
+                    dispatcher, null);
+            metrics.recordRead("first.key", true);
+            metrics.recordRead("first.missing", false);
+            assertEquals(2, metrics.getReadCount());
+            assertEquals(1, metrics.getReadMissCount());
+            assertTrue(metrics.getHotKeys().isEmpty());
+            assertEquals(-1, metrics.getUnreadKeyCount());
+
+            final long start = System.currentTimeMillis();
+            metrics.recordSourceReload(1, 1234L);
+            assertEquals(Long.valueOf(0), metrics.getSourceLastModifiedMillis().get("first"));
+            assertEquals(Long.valueOf(1234L), metrics.getSourceLastModifiedMillis().get("second"));
+            assertTrue(metrics.getSourceLastReloadMillis().get("second") >= start);
+
+            for (long generation = 1; generation <= 3; generation++) {
+                dispatcher.dispatch(change(generation, generation + 1));
+            }
+            final Map<String, Long> invocations = waitForInvocations(metrics, 6);
+            assertEquals(2, invocations.size());
+            final Map<String, Long> failures = metrics.getHandlerFailures();
+            assertEquals(Long.valueOf(3), failures.get(failing.getClass().getName()));
+            assertEquals(Long.valueOf(0), failures.get(counting.getClass().getName()));
+            assertEquals(invocations.keySet(), metrics.getHandlerDurationP99Micros().keySet());
+        } finally {
+            dispatcher.shutdown();
+        }
+    }
+
+    /**
+     * The size estimate grows with the length of the keys and values
+     */
+    @Test
+    public void testSnapshotBytes() {
+        final long empty = ConfigSnapshot.EMPTY.estimatedBytes();
+        final long small = new ConfigSnapshot(1L, Collections.singletonMap("a", "b")).estimatedBytes();
+        final long large = new ConfigSnapshot(1L, Collections.singletonMap("a", new String(new char[1000])))
+                .estimatedBytes();
+        assertTrue(empty < small);
+        assertEquals(small + 999, large);
+    }
+
+    /**
+     * Read misses are counted but not sampled, they never take the place of the keys of the config in the sampler
+     */
+    @Test
+    public void testMissesNotSampled() {
+        final KeyReadSampler sampler = new KeyReadSampler(1);
+        final ConfigMetrics metrics = new ConfigMetrics(Collections.singletonList("first"), new LongAdder(),
+                new HandlerDispatcher(Collections.emptyList(), null, 0), sampler);
+        for (int i = 0; i <= KeyReadSampler.MAX_KEYS; i++) {
+            metrics.recordRead("missing.key" + i, false);
+        }
+        metrics.recordRead("first.key", true);
+        assertEquals(KeyReadSampler.MAX_KEYS + 2, metrics.getReadCount());
+        assertEquals(KeyReadSampler.MAX_KEYS + 1, metrics.getReadMissCount());
+        assertEquals(Collections.singletonMap("first.key", 1L), metrics.getHotKeys());
+        assertEquals(0, sampler.dropped());
+
+        // More keys of the config read than tracked, the unread keys are unknown
+        for (int i = 0; i < KeyReadSampler.MAX_KEYS; i++) {
+            metrics.recordRead("first.key" + i, true);
+        }
+        assertEquals(1, sampler.dropped());
+        assertEquals(-1, metrics.getUnreadKeyCount());
+    }
+
+    private static Map<String, Long> waitForInvocations(ConfigMetrics metrics, long expected)
+            throws InterruptedException {
+        // Handlers run asynchronously, the counters are updated after a handler returned
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        Map<String, Long> invocations = metrics.getHandlerInvocations();
+        while (sum(invocations) < expected && System.nanoTime() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(10);
+            invocations = metrics.getHandlerInvocations();
+        }
+        assertEquals(expected, sum(invocations));
+        return invocations;
+    }
+
+    private static long sum(Map<String, Long> counts) {
+        return counts.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    private static HandlerRegistration registration(ConfigChangeHandler handler) {
+        final HandlerRegistration registration = new HandlerRegistration(handler);
+        registration.subscribe();
+        return registration;
+    }
+
+    private static ConfigChange change(long previous, long current) {
+        final Map<String, String> entries = new HashMap<>();
+        entries.put("test.generation", String.valueOf(current));
+        return ConfigChange.between(new ConfigSnapshot(previous, Collections.emptyMap()),
+                new ConfigSnapshot(current, entries));
+    }
+}
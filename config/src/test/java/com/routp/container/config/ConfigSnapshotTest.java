@@ -0,0 +1,132 @@
+package com.routp.container.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import io.helidon.config.ConfigMappingException;
+
+/**
+ * Unit test class for {@link ConfigSnapshot}
+ *
+ * @author prarout
+ * @since 1.0.0
+ */
+public class ConfigSnapshotTest {
+
+    /**
+     * Lookup of present, absent and null keys
+     */
+    @Test
+    public void testLookup() {
+        final Map<String, String> entries = new HashMap<>();
+        for (int i = 0; i < 1000; i++) {
+            entries.put("test.key." + i, "value-" + i);
+        }
+        final ConfigSnapshot snapshot = new ConfigSnapshot(1L, entries);
+        assertEquals(1000, snapshot.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals("value-" + i, snapshot.get("test.key." + i));
+        }
+        assertNull(snapshot.get("test.key.1000"));
+        assertNull(snapshot.get(""));
+        assertNull(snapshot.get(null));
+        assertEquals(entries, snapshot.toMap());
+    }
+
+    /**
+     * Primitive getters of pre-parsed values
+     */
+    @Test
+    public void testPrimitives() {
+        final Map<String, String> entries = new HashMap<>();
+        entries.put("int", "-42");
+        entries.put("long", "2147483649");
+        entries.put("double", "85.5");
+        entries.put("exp", "1e3");
+        entries.put("bool", "TRUE");
+        entries.put("text", "abc");
+        entries.put("sign", "-");
+        final ConfigSnapshot snapshot = new ConfigSnapshot(1L, entries);
+
+        assertEquals(-42, snapshot.getInt("int", 0));
+        assertEquals(-42L, snapshot.getLong("int", 0L));
+        assertEquals(-42.0, snapshot.getDouble("int", 0.0));
+        assertEquals(7, snapshot.getInt("long", 7));
+        assertEquals(2147483649L, snapshot.getLong("long", 0L));
+        assertEquals(85.5, snapshot.getDouble("double", 0.0));
+        assertEquals(1, snapshot.getInt("double", 1));
+        assertEquals(1000.0, snapshot.getDouble("exp", 0.0));
+        assertTrue(snapshot.getBoolean("bool", false));
+        assertFalse(snapshot.getBoolean("text", true));
+        assertTrue(snapshot.getBoolean("missing", true));
+        assertEquals(3, snapshot.getInt("text", 3));
+        assertEquals(3, snapshot.getInt("sign", 3));
+        assertEquals(3.0, snapshot.getDouble("sign", 3.0));
+        assertEquals(5L, snapshot.getLong("missing", 5L));
+    }
+
+    /**
+     * Empty snapshot returns null for every key
+     */
+    @Test
+    public void testEmpty() {
+        assertEquals(0, ConfigSnapshot.EMPTY.size());
+        assertNull(ConfigSnapshot.EMPTY.get("test.version"));
+        assertEquals(0, ConfigSnapshot.EMPTY.toMap().size());
+    }
+
+    /**
+     * Typed getters of the public API convert the values of the snapshot
+     */
+    @Test
+    public void testTypedGetters() {
+        final Map<String, String> entries = new HashMap<>();
+        entries.put("db.url", "jdbc:h2:mem");
+        entries.put("db.pool.size", "12");
+        entries.put("db.timeout", "2147483649");
+        entries.put("db.ratio", "0.75");
+        entries.put("db.enabled", "TRUE");
+        final ConfigSnapshot snapshot = new ConfigSnapshot(3L, entries);
+        assertEquals(3L, snapshot.getGeneration());
+        assertEquals("jdbc:h2:mem", snapshot.getValue("db.url"));
+        assertEquals(Integer.valueOf(12), snapshot.getIntValue("db.pool.size"));
+        assertEquals(Long.valueOf(2147483649L), snapshot.getLongValue("db.timeout"));
+        assertEquals(Double.valueOf(0.75), snapshot.getDoubleValue("db.ratio"));
+        assertTrue(snapshot.getBooleanValue("db.enabled"));
+        assertNull(snapshot.getIntValue("db.missing"));
+        assertTrue(snapshot.containsKey("db.url"));
+        assertFalse(snapshot.containsKey("db.missing"));
+        assertThrows(ConfigMappingException.class, () -> snapshot.getIntValue("db.url"));
+    }
+
+    /**
+     * Fingerprint depends on the entries only, not on the insertion order or the generation
+     */
+    @Test
+    public void testFingerprint() {
+        final Map<String, String> entries = new LinkedHashMap<>();
+        entries.put("test.app", "demo");
+        entries.put("test.version", "1.0");
+        final Map<String, String> reordered = new LinkedHashMap<>();
+        reordered.put("test.version", "1.0");
+        reordered.put("test.app", "demo");
+        final Map<String, String> swapped = new LinkedHashMap<>();
+        swapped.put("test.app", "1.0");
+        swapped.put("test.version", "demo");
+
+        final long fingerprint = new ConfigSnapshot(1L, entries).fingerprint();
+        assertEquals(fingerprint, new ConfigSnapshot(2L, reordered).fingerprint());
+        assertNotEquals(fingerprint, new ConfigSnapshot(3L, swapped).fingerprint());
+        assertNotEquals(fingerprint, ConfigSnapshot.EMPTY.fingerprint());
+    }
+}
@@ -0,0 +1,65 @@
+package com.routp.container.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit test class for {@link ConstantFlag}
+ *
+ * @author prarout
+ * @since 1.0.0
+ */
+public class ConstantFlagTest {
+
+    /**
+     * A flag is updated only by a change of its key and is shared per key and default value
+     */
+    @Test
+    public void testChanged() throws Throwable {
+        final ConstantFlag flag = ConstantFlag.of("test.flag.changed", false);
+        final ConstantFlag defaultTrue = ConstantFlag.of("test.flag.changed", true);
+        assertSame(flag, ConstantFlag.of("test.flag.changed", false));
+        assertNotSame(flag, defaultTrue);
+        assertEquals(MethodType.methodType(boolean.class), flag.handle().type());
+        final MethodHandle handle = flag.handle();
+        assertFalse(flag.get());
+        assertFalse((boolean) handle.invokeExact());
+        assertTrue(defaultTrue.get());
+
+        final ConfigSnapshot first = new ConfigSnapshot(1L, Collections.singletonMap("test.flag.changed", "true"));
+        ConstantFlag.changed(ConfigChange.between(ConfigSnapshot.EMPTY, first), first);
+        assertTrue(flag.get());
+        assertTrue((boolean) handle.invokeExact());
+
+        // A generation which does not change the key does not update the flag
+        final Map<String, String> entries = new HashMap<>();
+        entries.put("test.flag.changed", "true");
+        entries.put("test.flag.other", "false");
+        final ConfigSnapshot second = new ConfigSnapshot(2L, entries);
+        ConstantFlag.changed(ConfigChange.between(first, second), second);
+        assertTrue(flag.get());
+
+        // Any value other than true is false, a removed key has the default value
+        entries.put("test.flag.changed", "yes");
+        final ConfigSnapshot third = new ConfigSnapshot(3L, entries);
+        ConstantFlag.changed(ConfigChange.between(second, third), third);
+        assertFalse(flag.get());
+        assertFalse((boolean) handle.invokeExact());
+        assertFalse(defaultTrue.get());
+        final ConfigSnapshot fourth = new ConfigSnapshot(4L, Collections.emptyMap());
+        ConstantFlag.changed(ConfigChange.between(third, fourth), fourth);
+        assertFalse(flag.get());
+        assertTrue(defaultTrue.get());
+    }
+}
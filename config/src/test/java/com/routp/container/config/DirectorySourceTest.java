@@ -0,0 +1,116 @@
+package com.routp.container.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import io.helidon.config.ConfigException;
+
+/**
+ * Unit test class for {@link DirectorySource}
+ *
+ * @author prarout
+ * @since 1.0.0
+ */
+public class DirectorySourceTest {
+
+    /**
+     * Values are read on first access and a rescan keeps the values of the unchanged files
+     */
+    @Test
+    public void testLazyScan() throws IOException {
+        final Path dir = Files.createTempDirectory("directory-source");
+        final long modified = System.currentTimeMillis() - 60_000;
+        Files.setLastModifiedTime(Files.write(dir.resolve("db.url"), "jdbc:test\n".getBytes()),
+                FileTime.fromMillis(modified));
+        Files.setLastModifiedTime(Files.write(dir.resolve("db.pool.size"), "10".getBytes()),
+                FileTime.fromMillis(modified));
+        Files.createDirectory(dir.resolve("..data"));
+
+        final DirectorySource source = new DirectorySource(dir);
+        final Map<String, LazyValue> entries = source.scan();
+        assertEquals(2, entries.size());
+        assertNull(entries.get("db.url").getIfLoaded());
+        assertEquals("jdbc:test", entries.get("db.url").get());
+
+        final ConfigSnapshot snapshot = new ConfigSnapshot(1L, entries);
+        assertEquals(10, snapshot.getInt("db.pool.size", 0));
+        assertEquals("jdbc:test", snapshot.get("db.url"));
+
+        Files.write(dir.resolve("db.pool.size"), "20".getBytes());
+        Files.setLastModifiedTime(dir.resolve("db.pool.size"), FileTime.fromMillis(modified + 1000));
+        Files.write(dir.resolve("db.user"), "test".getBytes());
+        final Map<String, LazyValue> rescanned = source.scan();
+        assertEquals(3, rescanned.size());
+        assertSame(entries.get("db.url"), rescanned.get("db.url"));
+        assertNotSame(entries.get("db.pool.size"), rescanned.get("db.pool.size"));
+
+        final ConfigChange change = ConfigChange.between(snapshot, new ConfigSnapshot(2L, rescanned));
+        assertTrue(change.getModifiedKeys().contains("db.pool.size"));
+        assertTrue(change.getAddedKeys().contains("db.user"));
+        assertEquals(1, change.getModifiedKeys().size());
+        assertEquals("10", change.getOldValue("db.pool.size"));
+        assertEquals("20", change.getNewValue("db.pool.size"));
+    }
+
+    /**
+     * A file changed or deleted after the scan is missing from the scanned values and is not read again
+     */
+    @Test
+    public void testChangedSinceScan() throws IOException {
+        final Path dir = Files.createTempDirectory("directory-source");
+        final long modified = System.currentTimeMillis() - 60_000;
+        Files.setLastModifiedTime(Files.write(dir.resolve("db.url"), "jdbc:test".getBytes()),
+                FileTime.fromMillis(modified));
+        Files.setLastModifiedTime(Files.write(dir.resolve("db.user"), "test".getBytes()),
+                FileTime.fromMillis(modified));
+
+        final DirectorySource source = new DirectorySource(dir);
+        final Map<String, LazyValue> entries = source.scan();
+        Files.write(dir.resolve("db.url"), "jdbc:changed".getBytes());
+        Files.setLastModifiedTime(dir.resolve("db.url"), FileTime.fromMillis(modified + 1000));
+        Files.delete(dir.resolve("db.user"));
+        final ConfigSnapshot snapshot = new ConfigSnapshot(1L, entries);
+        assertNull(snapshot.get("db.url"));
+        assertNull(snapshot.get("db.user"));
+
+        // Restored with the scanned content and metadata, the failures are kept
+        Files.write(dir.resolve("db.url"), "jdbc:test".getBytes());
+        Files.setLastModifiedTime(dir.resolve("db.url"), FileTime.fromMillis(modified));
+        assertNull(snapshot.get("db.url"));
+
+        final Map<String, LazyValue> rescanned = source.scan();
+        assertEquals(1, rescanned.size());
+        assertEquals("jdbc:test", rescanned.get("db.url").get());
+    }
+
+    /**
+     * A missing directory fails the initial load, a directory deleted afterwards is scanned as unlisted and empty
+     */
+    @Test
+    public void testMissingDirectory() throws IOException {
+        final Path dir = Files.createTempDirectory("directory-source");
+        assertThrows(ConfigException.class, () -> new DirectorySource(dir.resolve("missing")).load());
+
+        final Path file = Files.write(dir.resolve("db.url"), "jdbc:test".getBytes());
+        final DirectorySource source = new DirectorySource(dir);
+        assertEquals(1, source.load().size());
+        assertFalse(source.isUnlisted());
+        Files.delete(file);
+        Files.delete(dir);
+        assertTrue(source.scan().isEmpty());
+        assertTrue(source.isUnlisted());
+    }
+}
@@ -4,17 +4,30 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BooleanSupplier;
+
+import javax.management.ObjectName;
 
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
@@ -35,6 +48,8 @@ public class DynamicConfigTest {
     private static final String testServiceFilePath =
             System.getProperty("user.dir") + File.separator + "testCfg.properties";
 
+    private static final ConfigKey<Integer> timeoutKey = DynamicConfig.key("test.timeout", Integer.class, 30);
+
     @BeforeAll
     public static void initialize() throws Exception {
         preInitializationCheck();
@@ -49,6 +64,8 @@ public class DynamicConfigTest {
         // Default value without initialization
         assertEquals("default", DynamicConfig.getConfigValueOrDefault("test.default", "default"));
         assertEquals(30, DynamicConfig.getConfigValueOrDefault("test.sleep", 30, Integer.class));
+        assertEquals(30, (int) timeoutKey.get());
+        assertEquals(30, DynamicConfig.getInt("test.timeout", 30));
 
         // Successful initialization - With custom executor which allows termination.
         preInitializationCheck();
@@ -78,6 +95,63 @@ public class DynamicConfigTest {
         DynamicConfig.terminate();
         deleteTestConfigFile();
 
+        // Last known good config - Written on initialization, used in place of a missing source
+        preInitializationCheck();
+        setupTestConfigFile();
+        final Path lastKnownGood = Files.createTempDirectory("last-known-good").resolve("config.snapshot");
+        DynamicConfig.builder().useCustomExecutor().sources(testServiceFilePath)
+                .lastKnownGood(lastKnownGood.toString()).build();
+        assertFalse(DynamicConfig.isLastKnownGoodInUse());
+        DynamicConfig.terminate();
+        deleteTestConfigFile();
+        preInitializationCheck();
+        DynamicConfig.builder().useCustomExecutor().sources(testServiceFilePath)
+                .lastKnownGood(lastKnownGood.toString()).build();
+        assertTrue(DynamicConfig.isLastKnownGoodInUse());
+        assertEquals("demo", DynamicConfig.getValue("test.account"));
+        ConfigSnapshot snapshot = DynamicConfig.snapshot();
+        modifyTestConfigFile();
+        while (!"sales".equals(snapshot.getValue("test.account"))) {
+            snapshot = DynamicConfig.awaitGeneration(snapshot.getGeneration() + 1, Duration.ofSeconds(30));
+        }
+        assertFalse(DynamicConfig.isLastKnownGoodInUse());
+        assertNull(DynamicConfig.getValue("test.server.url"));
+        awaitCondition(() -> "sales".equals(readLastKnownGood(lastKnownGood).get("test.account")));
+        // Source deleted after startup - Its entries are kept and the last known good config is not overwritten
+        deleteTestConfigFile();
+        awaitCondition(DynamicConfig::isLastKnownGoodInUse);
+        assertEquals("sales", DynamicConfig.getValue("test.account"));
+        assertEquals("sales", readLastKnownGood(lastKnownGood).get("test.account"));
+        setupTestConfigFile();
+        snapshot = DynamicConfig.snapshot();
+        while (!"demo".equals(snapshot.getValue("test.account"))) {
+            snapshot = DynamicConfig.awaitGeneration(snapshot.getGeneration() + 1, Duration.ofSeconds(30));
+        }
+        assertFalse(DynamicConfig.isLastKnownGoodInUse());
+        awaitCondition(() -> "demo".equals(readLastKnownGood(lastKnownGood).get("test.account")));
+        DynamicConfig.terminate();
+        deleteTestConfigFile();
+        // Missing source without a last known good config
+        Files.delete(lastKnownGood);
+        assertThrows(io.helidon.config.ConfigException.class, () -> DynamicConfig.builder().useCustomExecutor()
+                .sources(testServiceFilePath).lastKnownGood(lastKnownGood.toString()).build());
+
+        // Directory source - A touch of a read file changes no key and publishes no generation
+        preInitializationCheck();
+        final Path configDirectory = Files.createTempDirectory("config-directory");
+        final Path dbUrl = Files.write(configDirectory.resolve("db.url"), "jdbc:test".getBytes());
+        DynamicConfig.builder().useCustomExecutor().sources(configDirectory.toString()).build();
+        assertEquals("jdbc:test", DynamicConfig.getValue("db.url"));
+        final long generation = DynamicConfig.snapshot().getGeneration();
+        final long suppressed = DynamicConfig.getSuppressedChanges();
+        Files.setLastModifiedTime(dbUrl, FileTime.fromMillis(System.currentTimeMillis() + 60_000));
+        awaitCondition(() -> DynamicConfig.getSuppressedChanges() > suppressed);
+        assertEquals(generation, DynamicConfig.snapshot().getGeneration());
+        Files.write(dbUrl, "jdbc:changed".getBytes());
+        DynamicConfig.awaitGeneration(generation + 1, Duration.ofSeconds(30));
+        assertEquals("jdbc:changed", DynamicConfig.getValue("db.url"));
+        DynamicConfig.terminate();
+
         // Successful Initialization - With default executor and event handler invocation
         preInitializationCheck();
         setupTestConfigFile();
@@ -89,6 +163,8 @@ public class DynamicConfigTest {
         // Default value with initialization - Not yet defined
         assertEquals("V2", DynamicConfig.getConfigValueOrDefault("test.version", "V1"));
         assertEquals(10, DynamicConfig.getConfigValueOrDefault("test.timeout", 30, Integer.class));
+        assertEquals(10, (int) timeoutKey.get());
+        assertEquals(10, DynamicConfig.getInt("test.timeout", 30));
         try {
             DynamicConfig.terminate();
         } catch (Exception e) {
@@ -175,35 +251,170 @@ public class DynamicConfigTest {
      */
     @Test
     @Order(2)
-    public void testConfigChange() {
-        boolean isException = false;
-        try {
-            modifyTestConfigFile();
-            // Only required for MacOS. Java does not have a native file watcher implementation for MacOS,
-            // it’s using a fallback based on polling.
-            final String os = System.getProperty("os.name").trim();
-            if (os.toUpperCase().startsWith("MAC")) {
-                TimeUnit.MILLISECONDS.sleep(15000);
-            }
-        } catch (Exception e) {
-            isException = true;
+    public void testConfigChange() throws Exception {
+        final long generation = DynamicConfig.snapshot().getGeneration();
+        final CompletableFuture<ConfigSnapshot> nextChange = DynamicConfig.nextChange();
+        assertFalse(nextChange.isDone());
+        modifyTestConfigFile();
+        // Waits for the reload of the modified file. Java does not have a native file watcher implementation for
+        // MacOS, it’s using a fallback based on polling which takes several seconds.
+        ConfigSnapshot snapshot = DynamicConfig.awaitGeneration(generation + 1, Duration.ofSeconds(30));
+        // A change event received while the file was being written is followed by the reload of the complete file
+        while (!"sales".equals(snapshot.getValue("test.account"))) {
+            snapshot = DynamicConfig.awaitGeneration(snapshot.getGeneration() + 1, Duration.ofSeconds(30));
         }
+        assertEquals(generation + 1, nextChange.get().getGeneration());
         System.out.println("Modified config: " + Objects.requireNonNull(DynamicConfig.getConfigAsMap()));
-        assertFalse(isException);
 
         assertEquals("sales", DynamicConfig.getValue("test.account"));
         assertEquals(15, (int) DynamicConfig.getIntValue("test.timeout"));
+        assertEquals(15, (int) timeoutKey.get());
         assertEquals(2147483649L, DynamicConfig.getLongValue("UID"));
         assertEquals(85.5, DynamicConfig.getDoubleValue("percentage"));
         assertFalse(DynamicConfig.getBooleanValue("isSupported"));
+        assertEquals(2147483649L, DynamicConfig.getLong("UID", 0L));
+        assertEquals(85.5, DynamicConfig.getDouble("percentage", 0.0));
+        assertFalse(DynamicConfig.getBoolean("isSupported", true));
+        assertTrue(DynamicConfig.getBoolean("log.debug.enable", false));
         assertNull(DynamicConfig.getValue("test.server.url"));
     }
 
+    /**
+     * Runtime metrics are registered as an MBean and count the reads of the getters
+     */
+    @Test
+    @Order(3)
+    public void testMetrics() throws Exception {
+        final ObjectName name = new ObjectName(DynamicConfigMXBean.OBJECT_NAME);
+        assertEquals(DynamicConfig.currentSnapshot().getGeneration(),
+                ManagementFactory.getPlatformMBeanServer().getAttribute(name, "Generation"));
+        final DynamicConfigMXBean metrics = DynamicConfig.getMetrics();
+        assertEquals(DynamicConfig.getConfigAsMap().size(), metrics.getKeyCount());
+        final long reads = metrics.getReadCount();
+        final long misses = metrics.getReadMissCount();
+        DynamicConfig.getInt("test.missing", 1);
+        DynamicConfig.getValue("test.missing");
+        DynamicConfig.getValue("test.account");
+        assertEquals(reads + 3, metrics.getReadCount());
+        assertEquals(misses + 2, metrics.getReadMissCount());
+
+        // Key reads are not sampled by default
+        assertThrows(IllegalStateException.class, () -> DynamicConfig.getHotKeys(10));
+        assertEquals(-1, metrics.getUnreadKeyCount());
+    }
+
+
+    /**
+     * Reads of a snapshot and of a pinned thread see one generation while a reload publishes the next one
+     */
+    @Test
+    @Order(4)
+    public void testSnapshot() {
+        final ConfigSnapshot snapshot = DynamicConfig.snapshot();
+        final Map<String, String> entries = DynamicConfig.getConfigAsMap();
+        final Map<String, String> changed = new HashMap<>(entries);
+        changed.put("test.account", "pinned");
+        try (SnapshotPin pin = DynamicConfig.pin()) {
+            assertEquals(snapshot.getGeneration(), pin.getSnapshot().getGeneration());
+            DynamicConfig.TestHook.sourceChanged(0, changed);
+            assertEquals(entries.get("test.account"), DynamicConfig.getValue("test.account"));
+            assertEquals(entries.get("test.account"), snapshot.getValue("test.account"));
+            assertEquals(snapshot.getGeneration(), DynamicConfig.snapshot().getGeneration());
+        } finally {
+            assertEquals("pinned", DynamicConfig.getValue("test.account"));
+            DynamicConfig.TestHook.sourceChanged(0, entries);
+        }
+        assertEquals(entries.get("test.account"), DynamicConfig.getValue("test.account"));
+    }
+
+    /**
+     * Waiting callers are released by the publish of the generation they wait for
+     */
+    @Test
+    @Order(5)
+    public void testAwaitGeneration() throws Exception {
+        final ConfigSnapshot snapshot = DynamicConfig.snapshot();
+        assertSame(snapshot, DynamicConfig.awaitGeneration(snapshot.getGeneration(), Duration.ZERO));
+        final CompletableFuture<ConfigSnapshot> nextChange = DynamicConfig.nextChange();
+        assertThrows(TimeoutException.class,
+                () -> DynamicConfig.awaitGeneration(snapshot.getGeneration() + 1, Duration.ofMillis(10)));
+        assertFalse(nextChange.isDone());
+
+        final Map<String, String> entries = DynamicConfig.getConfigAsMap();
+        final Map<String, String> changed = new HashMap<>(entries);
+        changed.put("test.account", "awaited");
+        try {
+            DynamicConfig.TestHook.sourceChanged(0, changed);
+            assertTrue(nextChange.isDone());
+            assertEquals(snapshot.getGeneration() + 1, nextChange.get().getGeneration());
+            assertEquals("awaited", nextChange.get().getValue("test.account"));
+            assertSame(nextChange.get(),
+                    DynamicConfig.awaitGeneration(snapshot.getGeneration() + 1, Duration.ofSeconds(1)));
+        } finally {
+            DynamicConfig.TestHook.sourceChanged(0, entries);
+        }
+        assertEquals(entries.get("test.account"), DynamicConfig.getValue("test.account"));
+    }
+
+    /**
+     * A read of a source completing after a read of the same source which started later is discarded
+     */
+    @Test
+    @Order(6)
+    public void testStaleRead() {
+        final ConfigSnapshot snapshot = DynamicConfig.snapshot();
+        final long staleReads = DynamicConfig.getMetrics().getStaleReadCount();
+        final Map<String, String> changed = new HashMap<>(DynamicConfig.getConfigAsMap());
+        changed.put("test.account", "stale");
+        // The first sequence number was taken before the reads of the previous tests
+        DynamicConfig.TestHook.sourceChanged(0, 1L, changed);
+        assertEquals(staleReads + 1, DynamicConfig.getMetrics().getStaleReadCount());
+        assertEquals(snapshot.getGeneration(), DynamicConfig.snapshot().getGeneration());
+        assertEquals(snapshot.getValue("test.account"), DynamicConfig.getValue("test.account"));
+    }
+
+    /**
+     * A constant flag follows the changes of its key
+     */
+    @Test
+    @Order(7)
+    public void testConstantFlag() throws Throwable {
+        final ConstantFlag flag = DynamicConfig.constantFlag("test.feature");
+        assertSame(flag, DynamicConfig.constantFlag("test.feature", false));
+        assertFalse(flag.get());
+        final Map<String, String> entries = DynamicConfig.getConfigAsMap();
+        final Map<String, String> changed = new HashMap<>(entries);
+        changed.put("test.feature", "true");
+        try {
+            DynamicConfig.TestHook.sourceChanged(0, changed);
+            assertTrue(flag.get());
+            assertTrue((boolean) flag.handle().invokeExact());
+        } finally {
+            DynamicConfig.TestHook.sourceChanged(0, entries);
+        }
+        assertFalse(flag.get());
+    }
 
     private static void deleteTestConfigFile() throws Exception {
         Files.deleteIfExists(Paths.get(testServiceFilePath));
     }
 
+    private static Map<String, String> readLastKnownGood(Path lastKnownGood) {
+        try {
+            return SnapshotFile.read(lastKnownGood).entries();
+        } catch (IOException e) {
+            return new HashMap<>();
+        }
+    }
+
+    private static void awaitCondition(BooleanSupplier condition) throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Condition not met within 30 seconds");
+            TimeUnit.MILLISECONDS.sleep(50);
+        }
+    }
+
     @AfterAll
     public static void tearDown() throws Exception {
         deleteTestConfigFile();
@@ -0,0 +1,89 @@
+package com.routp.container.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit test class for {@link GenerationWaiters}
+ *
+ * @author prarout
+ * @since 1.0.0
+ */
+public class GenerationWaitersTest {
+
+    /**
+     * A publish completes the waiters of all the generations up to the published one, in ascending order
+     */
+    @Test
+    public void testPublished() throws Exception {
+        final GenerationWaiters waiters = new GenerationWaiters();
+        final AtomicReference<ConfigSnapshot> current = new AtomicReference<>(snapshot(1));
+        assertSame(current.get(), waiters.await(1, current::get).get());
+        assertEquals(0, waiters.pending());
+
+        final List<Long> completed = Collections.synchronizedList(new ArrayList<>());
+        final CompletableFuture<ConfigSnapshot> third = waiters.await(3, current::get);
+        third.thenRun(() -> completed.add(3L));
+        final CompletableFuture<ConfigSnapshot> second = waiters.await(2, current::get);
+        second.thenRun(() -> completed.add(2L));
+        final CompletableFuture<ConfigSnapshot> sameSecond = waiters.await(2, current::get);
+        final CompletableFuture<ConfigSnapshot> fifth = waiters.await(5, current::get);
+        assertEquals(3, waiters.pending());
+
+        // Cancelling one caller does not affect the callers waiting for the same generation
+        sameSecond.cancel(false);
+        current.set(snapshot(3));
+        waiters.published(current.get());
+        assertSame(current.get(), second.get());
+        assertSame(current.get(), third.get());
+        assertEquals(2, completed.size());
+        assertEquals(Long.valueOf(2), completed.get(0));
+        assertFalse(fifth.isDone());
+        assertEquals(1, waiters.pending());
+    }
+
+    /**
+     * A publish racing with the registration of a waiter is not missed
+     */
+    @Test
+    public void testPublishedDuringRegistration() throws Exception {
+        final GenerationWaiters waiters = new GenerationWaiters();
+        final ConfigSnapshot published = snapshot(2);
+        final int[] reads = {0};
+        // The snapshot changes between the check before and after the registration
+        final CompletableFuture<ConfigSnapshot> future =
+                waiters.await(2, () -> reads[0]++ == 0 ? snapshot(1) : published);
+        assertTrue(future.isDone());
+        assertSame(published, future.get());
+        assertEquals(0, waiters.pending());
+    }
+
+    /**
+     * Terminating fails all the waiters
+     */
+    @Test
+    public void testTerminate() {
+        final GenerationWaiters waiters = new GenerationWaiters();
+        final CompletableFuture<ConfigSnapshot> future = waiters.await(2, () -> snapshot(1));
+        waiters.terminate(new IllegalStateException("terminated"));
+        final ExecutionException e = assertThrows(ExecutionException.class, future::get);
+        assertTrue(e.getCause() instanceof IllegalStateException);
+        assertEquals(0, waiters.pending());
+    }
+
+    private static ConfigSnapshot snapshot(long generation) {
+        return new ConfigSnapshot(generation, Collections.singletonMap("test.generation", String.valueOf(generation)));
+    }
+}
@@ -0,0 +1,189 @@
+package com.routp.container.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.routp.container.config.handler.ConfigChangeHandler;
+
+/**
+ * Unit test class for {@link HandlerDispatcher}
+ *
+ * @author prarout
+ * @since 1.0.0
+ */
+public class HandlerDispatcherTest {
+
+    /**
+     * A blocked handler neither blocks the dispatch nor the other handlers, and is interrupted on timeout
+     */
+    @Test
+    public void testIsolationAndTimeout() throws Exception {
+        final CountDownLatch interrupted = new CountDownLatch(1);
+        final CountDownLatch fastInvoked = new CountDownLatch(1);
+        final HandlerRegistration slow = registration(change -> {
+            try {
+                TimeUnit.SECONDS.sleep(30);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+        });
+        final HandlerRegistration fast = registration(change -> fastInvoked.countDown());
+        final HandlerDispatcher dispatcher = new HandlerDispatcher(Arrays.asList(slow, fast), null, 200);
+        try {
+            dispatcher.dispatch(change(1L, 2L));
+            assertTrue(fastInvoked.await(5, TimeUnit.SECONDS));
+            assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        } finally {
+            dispatcher.shutdown();
+        }
+    }
+
+    /**
+     * The timeout of a completed invocation is cancelled and removed from the watchdog queue
+     */
+    @Test
+    public void testTimeoutCancelled() throws Exception {
+        final CountDownLatch completed = new CountDownLatch(10);
+        final HandlerRegistration fast = registration(change -> completed.countDown());
+        final HandlerDispatcher dispatcher = new HandlerDispatcher(Collections.singletonList(fast), null, 60_000);
+        try {
+            for (long generation = 1; generation <= 10; generation++) {
+                dispatcher.dispatch(change(generation, generation + 1));
+            }
+            assertTrue(completed.await(5, TimeUnit.SECONDS));
+            final long deadline = System.currentTimeMillis() + 5000;
+            while (dispatcher.scheduledTimeouts() > 0 && System.currentTimeMillis() < deadline) {
+                TimeUnit.MILLISECONDS.sleep(10);
+            }
+            assertEquals(0, dispatcher.scheduledTimeouts());
+        } finally {
+            dispatcher.shutdown();
+        }
+    }
+
+    /**
+     * One handler receives the changes in generation order, subscribed keys filter the changes
+     */
+    @Test
+    public void testOrderAndSubscription() throws Exception {
+        final List<Long> generations = Collections.synchronizedList(new ArrayList<>());
+        final CountDownLatch completed = new CountDownLatch(20);
+        final HandlerRegistration ordered = registration(change -> {
+            generations.add(change.getGeneration());
+            completed.countDown();
+        });
+        final List<Long> scoped = Collections.synchronizedList(new ArrayList<>());
+        final HandlerRegistration unrelated = new HandlerRegistration(change -> scoped.add(change.getGeneration()));
+        unrelated.subscribe("db.*");
+        final HandlerDispatcher dispatcher = new HandlerDispatcher(Arrays.asList(ordered, unrelated), null, 0);
+        try {
+            for (long generation = 1; generation <= 20; generation++) {
+                dispatcher.dispatch(change(generation, generation + 1));
+            }
+            assertTrue(completed.await(5, TimeUnit.SECONDS));
+            final List<Long> expected = new ArrayList<>();
+            for (long generation = 2; generation <= 21; generation++) {
+                expected.add(generation);
+            }
+            assertEquals(expected, generations);
+            assertTrue(scoped.isEmpty());
+        } finally {
+            dispatcher.shutdown();
+        }
+    }
+
+    /**
+     * A handler throwing an Error still receives the later changes
+     */
+    @Test
+    public void testHandlerError() throws Exception {
+        final CountDownLatch invoked = new CountDownLatch(2);
+        final HandlerRegistration failing = registration(change -> {
+            invoked.countDown();
+            throw new AssertionError("generation " + change.getGeneration());
+        });
+        final HandlerDispatcher dispatcher = new HandlerDispatcher(Collections.singletonList(failing), null, 0);
+        try {
+            dispatcher.dispatch(change(1L, 2L));
+            waitForFailures(dispatcher, 1);
+            dispatcher.dispatch(change(2L, 3L));
+            assertTrue(invoked.await(5, TimeUnit.SECONDS));
+            waitForFailures(dispatcher, 2);
+        } finally {
+            dispatcher.shutdown();
+        }
+    }
+
+    /**
+     * The changes enqueued while the queue of a blocked handler is full are merged into the last pending change
+     */
+    @Test
+    public void testBoundedQueue() throws Exception {
+        final CountDownLatch blocked = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final List<ConfigChange> changes = Collections.synchronizedList(new ArrayList<>());
+        final CountDownLatch completed = new CountDownLatch(HandlerDispatcher.MAX_PENDING_CHANGES + 1);
+        final HandlerRegistration slow = registration(change -> {
+            blocked.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            changes.add(change);
+            completed.countDown();
+        });
+        final HandlerDispatcher dispatcher = new HandlerDispatcher(Collections.singletonList(slow), null, 0);
+        try {
+            dispatcher.dispatch(change(1L, 2L));
+            assertTrue(blocked.await(5, TimeUnit.SECONDS));
+            final long last = HandlerDispatcher.MAX_PENDING_CHANGES + 10;
+            for (long generation = 2; generation < last; generation++) {
+                dispatcher.dispatch(change(generation, generation + 1));
+            }
+            release.countDown();
+            assertTrue(completed.await(5, TimeUnit.SECONDS));
+            assertEquals(HandlerDispatcher.MAX_PENDING_CHANGES + 1, changes.size());
+            final ConfigChange merged = changes.get(HandlerDispatcher.MAX_PENDING_CHANGES);
+            assertEquals(last, merged.getGeneration());
+            assertTrue(merged.isChanged("test.generation"));
+            assertEquals(String.valueOf(last), merged.getNewValue("test.generation"));
+        } finally {
+            dispatcher.shutdown();
+        }
+    }
+
+    private static void waitForFailures(HandlerDispatcher dispatcher, long failures) throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (dispatcher.handlerStatistics(HandlerDispatcher.HandlerStatistics::failures).values().iterator().next() <
+                failures && System.nanoTime() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+        assertEquals(failures, (long) dispatcher.handlerStatistics(HandlerDispatcher.HandlerStatistics::failures)
+                .values().iterator().next());
+    }
+
+    private static HandlerRegistration registration(ConfigChangeHandler handler) {
+        final HandlerRegistration registration = new HandlerRegistration(handler);
+        registration.subscribe();
+        return registration;
+    }
+
+    private static ConfigChange change(long previous, long current) {
+        final Map<String, String> entries = new HashMap<>();
+        entries.put("test.generation", String.valueOf(current));
+        return ConfigChange.between(new ConfigSnapshot(previous, Collections.emptyMap()),
+                new ConfigSnapshot(current, entries));
+    }
+}
@@ -0,0 +1,69 @@
+package com.routp.container.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit test class for {@link KeyReadSampler}
+ *
+ * @author prarout
+ * @since 1.0.0
+ */
+public class KeyReadSamplerTest {
+
+    /**
+     * Every read is counted with a period of 1, hot keys are ordered by reads and unread keys are reported
+     */
+    @Test
+    public void testHotAndUnreadKeys() {
+        final KeyReadSampler sampler = new KeyReadSampler(1);
+        for (int i = 0; i < 5; i++) {
+            sampler.sample("hot");
+        }
+        sampler.sample("warm");
+        sampler.sample("warm");
+        sampler.sample("missing");
+        sampler.sample(null);
+
+        final Map<String, Long> hotKeys = sampler.hotKeys(2);
+        assertEquals(Arrays.asList("hot", "warm"), new ArrayList<>(hotKeys.keySet()));
+        assertEquals(Long.valueOf(5), hotKeys.get("hot"));
+        assertEquals(3, sampler.hotKeys(10).size());
+
+        final Map<String, String> entries = new HashMap<>();
+        entries.put("hot", "1");
+        entries.put("warm", "2");
+        entries.put("dead.b", "3");
+        entries.put("dead.a", "4");
+        assertEquals(Arrays.asList("dead.a", "dead.b"),
+                new ArrayList<>(sampler.unreadKeys(new ConfigSnapshot(1L, entries))));
+    }
+
+    /**
+     * Sampled counts are scaled by the period and the number of tracked keys is bounded
+     */
+    @Test
+    public void testSamplingAndBound() {
+        final KeyReadSampler sampler = new KeyReadSampler(10);
+        for (int i = 0; i < 100_000; i++) {
+            sampler.sample("hot");
+        }
+        final long estimate = sampler.hotKeys(1).get("hot");
+        assertEquals(0, estimate % 10);
+        assertTrue(estimate > 80_000 && estimate < 120_000, "Estimate " + estimate);
+
+        final KeyReadSampler bounded = new KeyReadSampler(1);
+        for (int i = 0; i < KeyReadSampler.MAX_KEYS + 10; i++) {
+            bounded.sample("key" + i);
+        }
+        assertEquals(KeyReadSampler.MAX_KEYS, bounded.hotKeys(Integer.MAX_VALUE).size());
+        assertEquals(10, bounded.dropped());
+    }
+}
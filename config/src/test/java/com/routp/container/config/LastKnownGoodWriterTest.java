@@ -0,0 +1,52 @@
+package com.routp.container.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit test class for {@link LastKnownGoodWriter}
+ *
+ * @author prarout
+ * @since 1.0.0
+ */
+public class LastKnownGoodWriterTest {
+
+    /**
+     * Snapshots saved before the write runs are coalesced, only the latest one is written
+     */
+    @Test
+    public void testCoalescedWrites() throws IOException {
+        final Path file = Files.createTempDirectory("last-known-good").resolve("config.snapshot");
+        final List<Runnable> tasks = new ArrayList<>();
+        final LastKnownGoodWriter writer = new LastKnownGoodWriter(file, tasks::add);
+        for (int i = 1; i <= 3; i++) {
+            writer.save(snapshot(i));
+        }
+        assertEquals(1, tasks.size());
+        assertFalse(Files.exists(file));
+        tasks.remove(0).run();
+        assertEquals(3L, SnapshotFile.read(file).generation());
+        assertEquals("3", SnapshotFile.read(file).entries().get("test.generation"));
+
+        writer.save(snapshot(4));
+        assertEquals(1, tasks.size());
+        tasks.remove(0).run();
+        assertEquals(4L, SnapshotFile.read(file).generation());
+    }
+
+    private static ConfigSnapshot snapshot(long generation) {
+        final Map<String, String> entries = new HashMap<>();
+        entries.put("test.generation", String.valueOf(generation));
+        return new ConfigSnapshot(generation, entries);
+    }
+}
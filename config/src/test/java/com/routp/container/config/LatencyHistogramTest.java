@@ -0,0 +1,50 @@
+package com.routp.container.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit test class for {@link LatencyHistogram}
+ *
+ * @author prarout
+ * @since 1.0.0
+ */
+public class LatencyHistogramTest {
+
+    /**
+     * Percentiles are within the bucket precision of the exact values at any magnitude
+     */
+    @Test
+    public void testPercentiles() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getPercentile(99, TimeUnit.NANOSECONDS));
+        assertEquals(0, histogram.getMean(TimeUnit.NANOSECONDS));
+
+        for (long value = 1; value <= 1000; value++) {
+            histogram.record(TimeUnit.MICROSECONDS.toNanos(value));
+        }
+        assertEquals(1000, histogram.getCount());
+        assertEquals(1000, histogram.getMax(TimeUnit.MICROSECONDS));
+        assertEquals(500.5, histogram.getMean(TimeUnit.MICROSECONDS), 0.001);
+        assertWithinPrecision(500_000, histogram.getPercentile(50, TimeUnit.NANOSECONDS));
+        assertWithinPrecision(990_000, histogram.getPercentile(99, TimeUnit.NANOSECONDS));
+        assertEquals(1000, histogram.getPercentile(100, TimeUnit.MICROSECONDS));
+        assertEquals(1, histogram.getPercentile(0, TimeUnit.MICROSECONDS));
+
+        final LatencyHistogram large = new LatencyHistogram();
+        large.recordMillis(TimeUnit.HOURS.toMillis(5));
+        large.record(Long.MAX_VALUE);
+        large.record(-1);
+        assertEquals(0, large.getPercentile(1, TimeUnit.NANOSECONDS));
+        assertWithinPrecision(TimeUnit.HOURS.toNanos(5), large.getPercentile(50, TimeUnit.NANOSECONDS));
+        assertEquals(Long.MAX_VALUE, large.getPercentile(100, TimeUnit.NANOSECONDS));
+    }
+
+    private static void assertWithinPrecision(long expected, long actual) {
+        assertTrue(actual >= expected && actual <= expected * 1.125, "Expected " + expected + " but was " + actual);
+    }
+}
@@ -0,0 +1,116 @@
+package com.routp.container.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.junit.jupiter.api.Test;
+
+import io.helidon.config.ConfigException;
+
+/**
+ * Unit test class for {@link PropertiesSource}
+ *
+ * @author prarout
+ * @since 1.0.0
+ */
+public class PropertiesSourceTest {
+
+    private static final String PROPERTIES = "# comment\n"
+            + "! comment \\\n"
+            + "plain=value\n"
+            + "  spaced  =  value with trailing space \n"
+            + "colon:value\n"
+            + "whitespace value\n"
+            + "key.only\n"
+            + "double == value\n"
+            + "\tescaped\\ key\\=x=\\tvalue\\n\\\\\n"
+            + "continued=first \\\n   second \\\r\n\tthird\r"
+            + "unicode=\\u00e9t\\u00C9\n"
+            + "utf8.\u00fc=\u00f6\u20ac\r\n"
+            + "\\#not.comment=1\n"
+            + "duplicate=1\n"
+            + "duplicate=2\n"
+            + "last=end\\";
+
+    /**
+     * Entries are parsed the same as {@link Properties} loads them from a heap, direct and mapped buffer
+     */
+    @Test
+    public void testParse() throws IOException {
+        final Map<String, String> expected = load(PROPERTIES);
+        assertEquals("value with trailing space ", expected.get("spaced"));
+
+        final byte[] content = PROPERTIES.getBytes(StandardCharsets.UTF_8);
+        final PropertiesSource source = new PropertiesSource(Paths.get("test.properties"), new LongAdder());
+        assertEquals(expected, source.parse(ByteBuffer.wrap(content)));
+        final ByteBuffer direct = ByteBuffer.allocateDirect(content.length);
+        direct.put(content).flip();
+        assertEquals(expected, source.parse(direct));
+
+        // Large enough to be mapped
+        final StringBuilder large = new StringBuilder();
+        for (int i = 0; large.length() < PropertiesSource.MAP_THRESHOLD; i++) {
+            large.append("large.key.").append(i).append('=').append(i).append('\n');
+        }
+        large.append(PROPERTIES);
+        final Path file = Files.createTempFile("properties-source", ".properties");
+        Files.write(file, large.toString().getBytes(StandardCharsets.UTF_8));
+        assertEquals(load(large.toString()), new PropertiesSource(file, new LongAdder()).load());
+        Files.delete(file);
+
+        assertThrows(IllegalArgumentException.class, () -> source.parse(ByteBuffer.wrap("a=\\u00g1".getBytes())));
+    }
+
+    /**
+     * A reload of unchanged content is suppressed, a missing file has no entries at reload but fails the load
+     */
+    @Test
+    public void testReload() throws IOException {
+        final Path file = Files.createTempFile("properties-source", ".properties");
+        Files.write(file, "a=1\nb=2\n".getBytes());
+        final LongAdder suppressedReads = new LongAdder();
+        final PropertiesSource source = new PropertiesSource(file, suppressedReads);
+        assertEquals("1", source.load().get("a"));
+
+        assertNull(source.reload());
+        assertEquals(1, suppressedReads.sum());
+
+        Files.write(file, "a=3\nb=2\n".getBytes());
+        assertEquals("3", source.reload().get("a"));
+        assertEquals(1, suppressedReads.sum());
+
+        Files.delete(file);
+        assertTrue(source.reload().isEmpty());
+        assertTrue(source.isMissing());
+        Files.write(file, "a=3\nb=2\n".getBytes());
+        assertEquals("3", source.reload().get("a"));
+        assertFalse(source.isMissing());
+        Files.delete(file);
+        assertThrows(ConfigException.class, () -> new PropertiesSource(file, suppressedReads).load());
+    }
+
+    private static Map<String, String> load(String content) throws IOException {
+        final Properties properties = new Properties();
+        properties.load(new StringReader(content));
+        final Map<String, String> entries = new HashMap<>();
+        for (String key : properties.stringPropertyNames()) {
+            entries.put(key, properties.getProperty(key));
+        }
+        return entries;
+    }
+}
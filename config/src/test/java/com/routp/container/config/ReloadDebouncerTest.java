@@ -0,0 +1,74 @@
+package com.routp.container.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit test class for {@link ReloadDebouncer}
+ *
+ * @author prarout
+ * @since 1.0.0
+ */
+public class ReloadDebouncerTest {
+
+    private ScheduledExecutorService scheduler;
+
+    @BeforeEach
+    public void setUp() {
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * A burst of events results in one reload after the quiet period
+     */
+    @Test
+    public void testBurstCoalesced() throws InterruptedException {
+        final AtomicInteger reloads = new AtomicInteger();
+        final ReloadDebouncer debouncer = new ReloadDebouncer(scheduler, TimeUnit.MILLISECONDS.toNanos(100),
+                TimeUnit.SECONDS.toNanos(10), reloads::incrementAndGet);
+        for (int i = 0; i < 5; i++) {
+            debouncer.signal();
+        }
+        Thread.sleep(500);
+        assertEquals(1, reloads.get());
+        debouncer.signal();
+        Thread.sleep(500);
+        assertEquals(2, reloads.get());
+    }
+
+    @Test
+    public void testMaxDelay() throws InterruptedException {
+        final AtomicInteger reloads = new AtomicInteger();
+        final ReloadDebouncer debouncer = new ReloadDebouncer(scheduler, TimeUnit.MILLISECONDS.toNanos(100),
+                TimeUnit.MILLISECONDS.toNanos(300), reloads::incrementAndGet);
+        // Events every 50 ms never leave a quiet period, the maximum delay forces the reload
+        for (int i = 0; i < 12; i++) {
+            debouncer.signal();
+            Thread.sleep(50);
+        }
+        assertTrue(reloads.get() >= 1);
+    }
+
+    @Test
+    public void testDisabled() {
+        final AtomicInteger reloads = new AtomicInteger();
+        final ReloadDebouncer debouncer = new ReloadDebouncer(null, 0, 0, reloads::incrementAndGet);
+        debouncer.signal();
+        debouncer.signal();
+        assertEquals(2, reloads.get());
+    }
+}
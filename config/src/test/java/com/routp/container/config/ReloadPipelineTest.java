@@ -0,0 +1,131 @@
+package com.routp.container.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit test class for {@link ReloadPipeline}
+ *
+ * @author prarout
+ * @since 1.0.0
+ */
+public class ReloadPipelineTest {
+
+    /**
+     * A read completing after a read of the same source which started later is discarded
+     */
+    @Test
+    public void testStaleRead() {
+        final LongAdder staleReads = new LongAdder();
+        final ReloadPipeline pipeline = new ReloadPipeline(2, staleReads, () -> {
+        });
+        final long older = pipeline.nextSequence();
+        final long newer = pipeline.nextSequence();
+        assertTrue(pipeline.offer(0, newer, entries("newer"), 2000L));
+        assertFalse(pipeline.offer(0, older, entries("older"), 1000L));
+        assertEquals(1, staleReads.sum());
+        // Reads of other sources are sequenced independently
+        assertTrue(pipeline.offer(1, older, entries("other"), 0));
+
+        final ReloadPipeline.PendingLayer pending = pipeline.take(0);
+        assertEquals(newer, pending.sequence());
+        assertEquals("newer", pending.entries().get("test.read"));
+        assertNull(pipeline.take(0));
+
+        // Offered after a newer read was already taken
+        assertFalse(pipeline.offer(0, older, entries("older"), 0));
+        assertNull(pipeline.take(0));
+        assertEquals(2, staleReads.sum());
+        assertEquals("other", pipeline.take(1).entries().get("test.read"));
+    }
+
+    /**
+     * Coalesced reads of a source keep the entries of the latest read and the earliest modification time
+     */
+    @Test
+    public void testCoalesced() {
+        final ReloadPipeline pipeline = new ReloadPipeline(1, new LongAdder(), () -> {
+        });
+        assertTrue(pipeline.offer(0, pipeline.nextSequence(), entries("first"), 2000L));
+        assertTrue(pipeline.offer(0, pipeline.nextSequence(), entries("second"), 0));
+        assertTrue(pipeline.offer(0, pipeline.nextSequence(), entries("third"), 1000L));
+        final ReloadPipeline.PendingLayer pending = pipeline.take(0);
+        assertEquals("third", pending.entries().get("test.read"));
+        assertEquals(1000L, pending.modifiedMillis());
+    }
+
+    /**
+     * Concurrent signals run the reload on one thread at a time and the reload of the latest read always follows
+     */
+    @Test
+    public void testSingleWriter() throws Exception {
+        final int threads = 4;
+        final int readsPerThread = 2000;
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger overlaps = new AtomicInteger();
+        final AtomicReference<ReloadPipeline> pipelineRef = new AtomicReference<>();
+        final AtomicReference<Object> published = new AtomicReference<>();
+        final ReloadPipeline pipeline = new ReloadPipeline(1, new LongAdder(), () -> {
+            if (running.incrementAndGet() > 1) {
+                overlaps.incrementAndGet();
+            }
+            final ReloadPipeline.PendingLayer pending = pipelineRef.get().take(0);
+            if (pending != null) {
+                published.set(pending.entries().get("test.read"));
+            }
+            running.decrementAndGet();
+        });
+        pipelineRef.set(pipeline);
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        final CountDownLatch start = new CountDownLatch(1);
+        final AtomicReference<String> latest = new AtomicReference<>();
+        final Object sequenceLock = new Object();
+        try {
+            final Future<?>[] futures = new Future<?>[threads];
+            for (int t = 0; t < threads; t++) {
+                futures[t] = executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < readsPerThread; i++) {
+                        final long sequence;
+                        final String value;
+                        synchronized (sequenceLock) {
+                            sequence = pipeline.nextSequence();
+                            value = String.valueOf(sequence);
+                            latest.set(value);
+                        }
+                        pipeline.offer(0, sequence, entries(value), 0);
+                        pipeline.drain();
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(0, overlaps.get());
+        assertEquals(latest.get(), published.get());
+    }
+
+    private static Map<String, String> entries(String value) {
+        return Collections.singletonMap("test.read", value);
+    }
+}
@@ -0,0 +1,102 @@
+package com.routp.container.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit test class for {@link SnapshotFile}
+ *
+ * @author prarout
+ * @since 1.0.0
+ */
+public class SnapshotFileTest {
+
+    /**
+     * The entries and the generation of a written snapshot are read back, a rewrite replaces the file
+     */
+    @Test
+    public void testWriteAndRead() throws IOException {
+        final Path directory = Files.createTempDirectory("snapshot-file");
+        final Map<String, String> entries = new HashMap<>();
+        for (int i = 0; i < 1000; i++) {
+            entries.put("test.key" + i, "value" + i);
+        }
+        entries.put("test.empty", "");
+        entries.put("test.unicode", "grüße 配置");
+        final Path file = directory.resolve("config.snapshot");
+        SnapshotFile.write(file, new ConfigSnapshot(7L, entries));
+        SnapshotFile snapshotFile = SnapshotFile.read(file);
+        assertEquals(7L, snapshotFile.generation());
+        assertEquals(entries, snapshotFile.entries());
+
+        entries.put("test.key0", "changed");
+        SnapshotFile.write(file, new ConfigSnapshot(8L, entries));
+        snapshotFile = SnapshotFile.read(file);
+        assertEquals(8L, snapshotFile.generation());
+        assertEquals("changed", snapshotFile.entries().get("test.key0"));
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(1, files.count());
+        }
+        SnapshotFile.write(file, ConfigSnapshot.EMPTY);
+        assertTrue(SnapshotFile.read(file).entries().isEmpty());
+    }
+
+    /**
+     * A value of a directory source not read yet is read and written
+     */
+    @Test
+    public void testUnloadedLazyValue() throws IOException {
+        final Path directory = Files.createTempDirectory("snapshot-file");
+        final Path source = Files.createDirectory(directory.resolve("source"));
+        Files.write(source.resolve("db.url"), "jdbc:test".getBytes(StandardCharsets.UTF_8));
+        final Map<String, LazyValue> entries = new DirectorySource(source).load();
+        final Path file = directory.resolve("config.snapshot");
+        assertNull(entries.get("db.url").getIfLoaded());
+        SnapshotFile.write(file, new ConfigSnapshot(1L, entries));
+        assertEquals("jdbc:test", SnapshotFile.read(file).entries().get("db.url"));
+        assertEquals("jdbc:test", entries.get("db.url").getIfLoaded());
+    }
+
+    /**
+     * A corrupted, truncated or foreign file is rejected
+     */
+    @Test
+    public void testCorrupted() throws IOException {
+        final Path directory = Files.createTempDirectory("snapshot-file");
+        final Path file = directory.resolve("config.snapshot");
+        final Map<String, String> entries = new HashMap<>();
+        entries.put("test.account", "demo");
+        SnapshotFile.write(file, new ConfigSnapshot(1L, entries));
+        final long size = Files.size(file);
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file.toFile(), "rw")) {
+            randomAccessFile.seek(size - 1);
+            final int last = randomAccessFile.read();
+            randomAccessFile.seek(size - 1);
+            randomAccessFile.write(last ^ 1);
+        }
+        assertThrows(IOException.class, () -> SnapshotFile.read(file));
+
+        SnapshotFile.write(file, new ConfigSnapshot(1L, entries));
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file.toFile(), "rw")) {
+            randomAccessFile.setLength(size - 2);
+        }
+        assertThrows(IOException.class, () -> SnapshotFile.read(file));
+
+        Files.write(file, "test.account=demo".getBytes(StandardCharsets.UTF_8));
+        assertThrows(IOException.class, () -> SnapshotFile.read(file));
+        assertThrows(IOException.class, () -> SnapshotFile.read(directory.resolve("missing.snapshot")));
+    }
+}
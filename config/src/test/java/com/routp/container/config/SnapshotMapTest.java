@@ -0,0 +1,73 @@
+package com.routp.container.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit test class for {@link SnapshotMap}
+ *
+ * @author prarout
+ * @since 1.0.0
+ */
+public class SnapshotMapTest {
+
+    /**
+     * The view has the entries of the snapshot and is equal to a map with the same entries
+     */
+    @Test
+    public void testView() {
+        final Map<String, String> entries = new HashMap<>();
+        for (int i = 0; i < 100; i++) {
+            entries.put("test.key" + i, "value" + i);
+        }
+        final ConfigSnapshot snapshot = new ConfigSnapshot(1L, entries);
+        final Map<String, String> view = snapshot.asMap();
+        assertSame(view, snapshot.asMap());
+        assertEquals(entries, view);
+        assertEquals(view, entries);
+        assertEquals(entries.hashCode(), view.hashCode());
+        assertEquals(100, view.size());
+        assertEquals(100, view.keySet().size());
+        assertEquals("value7", view.get("test.key7"));
+        assertNull(view.get("test.missing"));
+        assertNull(view.get(7));
+        assertFalse(view.containsKey(7));
+        assertEquals("default", view.getOrDefault("test.missing", "default"));
+        assertTrue(view.entrySet().contains(new AbstractMap.SimpleImmutableEntry<>("test.key7", "value7")));
+        assertFalse(view.entrySet().contains(new AbstractMap.SimpleImmutableEntry<>("test.key7", "value8")));
+        final Map<String, String> copy = new HashMap<>();
+        view.forEach(copy::put);
+        assertEquals(entries, copy);
+        assertTrue(ConfigSnapshot.EMPTY.asMap().isEmpty());
+        assertFalse(ConfigSnapshot.EMPTY.asMap().entrySet().iterator().hasNext());
+    }
+
+    /**
+     * Every mutation of the view or of its entries is rejected
+     */
+    @Test
+    public void testReadOnly() {
+        final Map<String, String> view = new ConfigSnapshot(1L, Collections.singletonMap("a", "1")).asMap();
+        assertThrows(UnsupportedOperationException.class, () -> view.put("b", "2"));
+        assertThrows(UnsupportedOperationException.class, () -> view.remove("a"));
+        assertThrows(UnsupportedOperationException.class, view::clear);
+        assertThrows(UnsupportedOperationException.class, () -> view.keySet().remove("a"));
+        assertThrows(UnsupportedOperationException.class, () -> view.entrySet().iterator().next().setValue("2"));
+        final Iterator<String> keys = view.keySet().iterator();
+        keys.next();
+        assertThrows(UnsupportedOperationException.class, keys::remove);
+        assertEquals(1, view.size());
+    }
+}
@@ -0,0 +1,80 @@
+package com.routp.container.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit test class for {@link SnapshotPin}
+ *
+ * @author prarout
+ * @since 1.0.0
+ */
+public class SnapshotPinTest {
+
+    /**
+     * Pins nest and are only visible to the pinning thread, typed handles read the pinned generation
+     */
+    @Test
+    public void testPinning() throws Exception {
+        final ConfigSnapshot outer = new ConfigSnapshot(101L, Collections.singletonMap("pin.size", "1"));
+        final ConfigSnapshot inner = new ConfigSnapshot(102L, Collections.singletonMap("pin.size", "2"));
+        final ConfigKey<Integer> size = new ConfigKey<>("pin.size", Integer.class, 0);
+        assertNull(SnapshotPin.pinned());
+        try (SnapshotPin outerPin = new SnapshotPin(outer)) {
+            assertSame(outer, outerPin.getSnapshot());
+            assertSame(outer, DynamicConfig.currentSnapshot());
+            assertEquals(1, (int) size.get());
+            try (SnapshotPin ignored = new SnapshotPin(inner)) {
+                assertSame(inner, DynamicConfig.currentSnapshot());
+                assertEquals(2, (int) size.get());
+                assertNull(CompletableFuture.supplyAsync(SnapshotPin::pinned).get());
+            }
+            assertSame(outer, DynamicConfig.currentSnapshot());
+            assertEquals(1, (int) size.get(outer));
+        }
+        assertNull(SnapshotPin.pinned());
+    }
+
+    /**
+     * Typed handles cache the pinned and the current generation separately, alternating reads do not convert again
+     */
+    @Test
+    public void testPinnedAndCurrentCached() {
+        final ConfigSnapshot older = new ConfigSnapshot(201L, Collections.singletonMap("pin.id", "1000001"));
+        final ConfigSnapshot newer = new ConfigSnapshot(202L, Collections.singletonMap("pin.id", "2000002"));
+        final ConfigKey<Long> id = new ConfigKey<>("pin.id", Long.class, 0L);
+        final Long current = id.get(newer);
+        final Long pinned;
+        try (SnapshotPin ignored = new SnapshotPin(older)) {
+            pinned = id.get();
+        }
+        assertEquals(1000001L, (long) pinned);
+        assertEquals(2000002L, (long) current);
+        for (int i = 0; i < 3; i++) {
+            assertSame(current, id.get(newer));
+            assertSame(pinned, id.get(older));
+        }
+    }
+
+    /**
+     * A pin can only be closed by its thread, closing it twice does nothing
+     */
+    @Test
+    public void testClose() throws Exception {
+        final SnapshotPin pin = new SnapshotPin(ConfigSnapshot.EMPTY);
+        try {
+            final Throwable failure = CompletableFuture.runAsync(pin::close).handle((result, e) -> e).get();
+            assertEquals(IllegalStateException.class, failure.getCause().getClass());
+        } finally {
+            pin.close();
+        }
+        pin.close();
+        assertNull(SnapshotPin.pinned());
+    }
+}
@@ -0,0 +1,91 @@
+package com.routp.container.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import io.helidon.common.reactive.Flow;
+import io.helidon.config.spi.PollingStrategy;
+
+/**
+ * Unit test class for {@link SourcePoller}
+ *
+ * @author prarout
+ * @since 1.0.0
+ */
+public class SourcePollerTest {
+
+    /**
+     * Unchanged metadata skips the read, a change of the modification time or size ticks the source
+     */
+    @Test
+    public void testPoll() throws IOException {
+        final Path dir = Files.createTempDirectory("source-poller");
+        final Path file = Files.write(dir.resolve("test.properties"), "a=1".getBytes());
+        final long modified = System.currentTimeMillis() - 60_000;
+        Files.setLastModifiedTime(file, FileTime.fromMillis(modified));
+
+        final SourcePoller poller = new SourcePoller();
+        final AtomicInteger fileTicks = subscribe(poller.register(file));
+        final AtomicInteger dirTicks = subscribe(poller.register(dir));
+        poller.poll();
+        poller.poll();
+        assertEquals(0, fileTicks.get());
+        assertEquals(0, dirTicks.get());
+        assertEquals(4, poller.getSkippedReads());
+
+        Files.write(file, "a=22".getBytes());
+        Files.setLastModifiedTime(file, FileTime.fromMillis(modified + 1000));
+        poller.poll();
+        assertEquals(1, fileTicks.get());
+        assertEquals(1, dirTicks.get());
+
+        // Atomic replace with the same size and modification time, only the file key (inode) differs
+        final Path replacement = Files.write(dir.resolve("test.properties.tmp"), "a=33".getBytes());
+        Files.setLastModifiedTime(replacement, FileTime.fromMillis(modified + 1000));
+        Files.move(replacement, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        poller.poll();
+        assertEquals(2, fileTicks.get());
+
+        // Modified within the racy window, the sources tick even though the metadata is unchanged, the reload
+        // compares their content
+        Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+        poller.poll();
+        poller.poll();
+        assertEquals(4, fileTicks.get());
+        assertEquals(4, dirTicks.get());
+        assertEquals(4, poller.getSkippedReads());
+        poller.close();
+    }
+
+    private static AtomicInteger subscribe(PollingStrategy pollingStrategy) {
+        final AtomicInteger ticks = new AtomicInteger();
+        pollingStrategy.ticks().subscribe(new Flow.Subscriber<PollingStrategy.PollingEvent>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(PollingStrategy.PollingEvent item) {
+                ticks.incrementAndGet();
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        });
+        return ticks;
+    }
+}
@@ -0,0 +1,118 @@
+package com.routp.container.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+import io.helidon.common.reactive.Flow;
+import io.helidon.config.spi.PollingStrategy;
+
+/**
+ * Unit test class for {@link SourceTicks}
+ *
+ * @author prarout
+ * @since 1.0.0
+ */
+public class SourceTicksTest {
+
+    /**
+     * The tick action runs on the executor, ticks received while it is queued are coalesced into it
+     */
+    @Test
+    public void testOnTickExecutor() throws IOException, InterruptedException {
+        final Path file = Files.write(Files.createTempFile("source-ticks", ".properties"), "a=1".getBytes());
+        final SourceTicks sourceTicks = new SourceTicks(file);
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger runs = new AtomicInteger();
+        final AtomicReference<Thread> actionThread = new AtomicReference<>();
+        try {
+            sourceTicks.onTick(executor, () -> {
+                actionThread.set(Thread.currentThread());
+                runs.incrementAndGet();
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            sourceTicks.tick();
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            assertNotSame(Thread.currentThread(), actionThread.get());
+            // The first action is running, the next ticks queue one more run
+            for (int i = 0; i < 5; i++) {
+                sourceTicks.tick();
+            }
+            release.countDown();
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+            assertEquals(2, runs.get());
+        } finally {
+            sourceTicks.close();
+            executor.shutdownNow();
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * A tick received while the subscriber has not requested the next one is delivered on its next request
+     */
+    @Test
+    public void testTickWithoutDemand() throws IOException {
+        final Path file = Files.write(Files.createTempFile("source-ticks", ".yaml"), "a: 1".getBytes());
+        final SourceTicks sourceTicks = new SourceTicks(file);
+        final AtomicInteger events = new AtomicInteger();
+        final AtomicReference<Flow.Subscription> subscriptionRef = new AtomicReference<>();
+        try {
+            // Requests one event at a time like the polling subscriber of Helidon
+            sourceTicks.ticks().subscribe(new Flow.Subscriber<PollingStrategy.PollingEvent>() {
+                @Override
+                public void onSubscribe(Flow.Subscription subscription) {
+                    subscriptionRef.set(subscription);
+                    subscription.request(1);
+                }
+
+                @Override
+                public void onNext(PollingStrategy.PollingEvent event) {
+                    events.incrementAndGet();
+                }
+
+                @Override
+                public void onError(Throwable throwable) {
+                    throw new AssertionError(throwable);
+                }
+
+                @Override
+                public void onComplete() {
+                }
+            });
+            Files.write(file, "a: 2".getBytes());
+            sourceTicks.tick();
+            assertEquals(1, events.get());
+            // Changed while the first event is reloaded
+            Files.write(file, "a: 3".getBytes());
+            sourceTicks.tick();
+            sourceTicks.tick();
+            assertEquals(1, events.get());
+            subscriptionRef.get().request(1);
+            assertEquals(2, events.get());
+        } finally {
+            sourceTicks.close();
+            Files.deleteIfExists(file);
+        }
+    }
+}
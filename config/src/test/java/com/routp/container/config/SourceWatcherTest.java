@@ -0,0 +1,89 @@
+package com.routp.container.config;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import io.helidon.common.reactive.Flow;
+import io.helidon.config.spi.PollingStrategy;
+
+/**
+ * Unit test class for {@link SourceWatcher}
+ *
+ * @author prarout
+ * @since 1.0.0
+ */
+public class SourceWatcherTest {
+
+    /**
+     * Sources sharing one watch service tick only on their own content changes
+     */
+    @Test
+    public void testTicks() throws IOException, InterruptedException {
+        final Path dir = Files.createTempDirectory("source-watcher");
+        final Path first = Files.write(dir.resolve("first.properties"), "a=1".getBytes());
+        // Kubernetes ConfigMap layout: second.properties -> ..data/second.properties, ..data -> ..v1
+        Files.createDirectory(dir.resolve("..v1"));
+        Files.write(dir.resolve("..v1/second.properties"), "b=1".getBytes());
+        Files.createSymbolicLink(dir.resolve("..data"), Paths.get("..v1"));
+        final Path second = Files.createSymbolicLink(dir.resolve("second.properties"),
+                Paths.get("..data/second.properties"));
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        final SourceWatcher watcher = new SourceWatcher();
+        try {
+            final CountDownLatch firstTicks = subscribe(watcher.register(first));
+            final CountDownLatch secondTicks = subscribe(watcher.register(second));
+            watcher.start(executor);
+
+            Files.write(first, "a=2".getBytes());
+            assertTrue(firstTicks.await(30, TimeUnit.SECONDS));
+            assertFalse(secondTicks.await(500, TimeUnit.MILLISECONDS));
+
+            // ConfigMap update: the ..data symbolic link is swapped to a new directory
+            Files.createDirectory(dir.resolve("..v2"));
+            Files.write(dir.resolve("..v2/second.properties"), "b=2".getBytes());
+            Files.createSymbolicLink(dir.resolve("..data_tmp"), Paths.get("..v2"));
+            Files.move(dir.resolve("..data_tmp"), dir.resolve("..data"), StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+            assertTrue(secondTicks.await(30, TimeUnit.SECONDS));
+        } finally {
+            watcher.close();
+            executor.shutdownNow();
+        }
+    }
+
+    private static CountDownLatch subscribe(PollingStrategy pollingStrategy) {
+        final CountDownLatch ticks = new CountDownLatch(1);
+        pollingStrategy.ticks().subscribe(new Flow.Subscriber<PollingStrategy.PollingEvent>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(PollingStrategy.PollingEvent item) {
+                ticks.countDown();
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        });
+        return ticks;
+    }
+}
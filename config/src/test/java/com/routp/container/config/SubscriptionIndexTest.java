@@ -0,0 +1,49 @@
+package com.routp.container.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit test class for {@link SubscriptionIndex}
+ *
+ * @author prarout
+ * @since 1.0.0
+ */
+public class SubscriptionIndexTest {
+
+    /**
+     * Exact, prefix and wildcard subscriptions
+     */
+    @Test
+    public void testMatch() {
+        final SubscriptionIndex index = new SubscriptionIndex();
+        index.subscribe("log.*", 0);
+        index.subscribe("db.pool.*", 1);
+        index.subscribe("db.url", 2);
+        index.subscribe("*", 3);
+        index.subscribe("db.pool.size", 4);
+
+        assertEquals(bits(0, 3), index.match(Collections.singleton("log.level")));
+        assertEquals(bits(3), index.match(Collections.singleton("logger.level")));
+        assertEquals(bits(3), index.match(Collections.singleton("log")));
+        assertEquals(bits(1, 3, 4), index.match(Collections.singleton("db.pool.size")));
+        assertEquals(bits(1, 3), index.match(Collections.singleton("db.pool.max")));
+        assertEquals(bits(2, 3), index.match(Collections.singleton("db.url")));
+        assertEquals(bits(3), index.match(Collections.singleton("db.url.backup")));
+        assertEquals(bits(0, 2, 3), index.match(Arrays.asList("db.url", "log.debug.enable")));
+        assertEquals(bits(), index.match(Collections.emptySet()));
+    }
+
+    private static BitSet bits(int... indexes) {
+        final BitSet bitSet = new BitSet();
+        for (int index : indexes) {
+            bitSet.set(index);
+        }
+        return bitSet;
+    }
+}
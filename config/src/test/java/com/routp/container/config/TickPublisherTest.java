@@ -0,0 +1,99 @@
+package com.routp.container.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+import io.helidon.common.reactive.Flow;
+
+/**
+ * Unit test class for {@link TickPublisher}
+ *
+ * @author prarout
+ * @since 1.0.0
+ */
+public class TickPublisherTest {
+
+    /**
+     * Items are delivered within the requested demand, the latest item submitted without demand is delivered on the
+     * next request and nothing is delivered after a cancel
+     */
+    @Test
+    public void testDemand() {
+        final TickPublisher<Integer> publisher = new TickPublisher<>();
+        final List<Integer> items = new ArrayList<>();
+        final AtomicReference<Flow.Subscription> subscriptionRef = new AtomicReference<>();
+        publisher.subscribe(subscriber(items, subscriptionRef, new AtomicBoolean()));
+        assertEquals(0, publisher.submit(1));
+        subscriptionRef.get().request(2);
+        assertEquals(1, publisher.submit(2));
+        assertEquals(0, publisher.submit(3));
+        assertEquals(0, publisher.submit(4));
+        subscriptionRef.get().request(Long.MAX_VALUE);
+        subscriptionRef.get().request(Long.MAX_VALUE);
+        assertEquals(1, publisher.submit(5));
+        subscriptionRef.get().cancel();
+        assertEquals(0, publisher.submit(6));
+        subscriptionRef.get().request(1);
+
+        final List<Integer> expected = new ArrayList<>();
+        expected.add(1);
+        expected.add(2);
+        expected.add(4);
+        expected.add(5);
+        assertEquals(expected, items);
+    }
+
+    /**
+     * Closing completes the current subscribers and the ones subscribing afterwards
+     */
+    @Test
+    public void testClose() {
+        final TickPublisher<Integer> publisher = new TickPublisher<>();
+        final AtomicBoolean completed = new AtomicBoolean();
+        final AtomicReference<Flow.Subscription> subscriptionRef = new AtomicReference<>();
+        final List<Integer> items = new ArrayList<>();
+        publisher.subscribe(subscriber(items, subscriptionRef, completed));
+        subscriptionRef.get().request(Long.MAX_VALUE);
+        publisher.close();
+        assertTrue(completed.get());
+        assertEquals(0, publisher.submit(1));
+
+        final AtomicBoolean lateCompleted = new AtomicBoolean();
+        publisher.subscribe(subscriber(items, new AtomicReference<>(), lateCompleted));
+        assertTrue(lateCompleted.get());
+        assertTrue(items.isEmpty());
+    }
+
+    private static Flow.Subscriber<Integer> subscriber(List<Integer> items,
+                                                       AtomicReference<Flow.Subscription> subscriptionRef,
+                                                       AtomicBoolean completed) {
+        return new Flow.Subscriber<Integer>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscriptionRef.set(subscription);
+            }
+
+            @Override
+            public void onNext(Integer item) {
+                items.add(item);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                throw new AssertionError(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                completed.set(true);
+            }
+        };
+    }
+}